@@ -0,0 +1,107 @@
+import edu.princeton.cs.algs4.MinPQ;
+import java.util.*;
+
+// A* with manhattan priority. Runs the twin board in lockstep: exactly one of
+// a board and its twin can reach the goal, so whichever gets there first tells
+// us if the board is solvable. No closed set, so memory grows with the number
+// of boards in the queue; best for 3x3 and easy 4x4 boards.
+public class AStarEngine implements SearchEngine {
+
+    // class for game nodes
+    private static class SearchNode implements Comparable<SearchNode> {
+        private final Board board;
+        private final int moves;
+        private final SearchNode previous;
+        private final int priority;
+
+        public SearchNode(Board board, int moves, SearchNode previous, int heuristic) {
+            this.board = board;
+            this.moves = moves;
+            this.previous = previous;
+            this.priority = heuristic + moves;
+        }
+
+        public int compareTo(SearchNode that) {
+            return this.priority - that.priority;
+        }
+    }
+
+    public String name() {
+        return "A*";
+    }
+
+    public SearchResult search(Board initial, Goal goal, SearchControl control) {
+        // need two queues for original and twin
+        MinPQ<SearchNode> pq = new MinPQ<>();
+        MinPQ<SearchNode> twinPq = new MinPQ<>();
+
+        // start the search
+        // manhattan seems to work better
+        Board twin = initial.twin();
+        pq.insert(new SearchNode(initial, 0, null, control.manhattan(initial, goal)));
+        twinPq.insert(new SearchNode(twin, 0, null, control.manhattan(twin, goal)));
+
+        // keep searching until we find a solution
+        int bound = -1;
+        while (!pq.isEmpty() && !twinPq.isEmpty()) {
+            // get next boards to check
+            control.phase(SearchControl.QUEUE);
+            SearchNode node = pq.delMin();
+            SearchNode twinNode = twinPq.delMin();
+            control.phase(SearchControl.EXPAND);
+
+            // priorities only go up as A* runs, so the best one is our f bound
+            if (node.priority > bound) {
+                bound = node.priority;
+                control.bound(bound);
+            }
+            control.expanded(pq.size() + twinPq.size());
+
+            // check if we solved it
+            if (node.board.isGoal(goal)) {
+                return SearchResult.solved(path(node));
+            }
+
+            // check if twin is solved (means original can't be solved)
+            if (twinNode.board.isGoal(goal)) {
+                return SearchResult.unsolvable();
+            }
+
+            // try all possible next moves, except going back to the previous board
+            node.board.forEachNeighbor(previousBlank(node), neighbor -> {
+                SearchNode child = new SearchNode(neighbor, node.moves + 1, node, control.manhattan(neighbor, goal));
+                control.phase(SearchControl.QUEUE);
+                pq.insert(child);
+                control.phase(SearchControl.EXPAND);
+            });
+
+            // do same for twin
+            twinNode.board.forEachNeighbor(previousBlank(twinNode), neighbor -> {
+                SearchNode child = new SearchNode(neighbor, twinNode.moves + 1, twinNode,
+                        control.manhattan(neighbor, goal));
+                control.phase(SearchControl.QUEUE);
+                twinPq.insert(child);
+                control.phase(SearchControl.EXPAND);
+            });
+        }
+        return SearchResult.unsolvable();
+    }
+
+    // the blank cell of the board we came from, so we don't move straight back
+    private static int previousBlank(SearchNode node) {
+        return node.previous == null ? -1 : node.previous.board.blank();
+    }
+
+    // make a list of all the boards in the solution
+    private static List<Board> path(SearchNode goal) {
+        LinkedList<Board> path = new LinkedList<>();
+        SearchNode current = goal;
+
+        // add boards in the right order
+        while (current != null) {
+            path.addFirst(current.board);
+            current = current.previous;
+        }
+        return path;
+    }
+}
@@ -0,0 +1,63 @@
+// Picks an engine for each board from its size and manhattan distance.
+// Close boards go to A*, everything else to IDA*: once the estimate gets
+// big A* spends its time allocating queue nodes (puzzle4x4-38 took ~4s with
+// A* and ~40ms with IDA*), and IDA* needs next to no memory on any size.
+public class AutoEngine implements SearchEngine {
+
+    // boards estimated further out than this go to IDA*
+    private static final int ASTAR_LIMIT = 10;
+
+    private static final SearchEngine ASTAR = new AStarEngine();
+    private static final SearchEngine IDA_STAR = new IdaStarEngine();
+
+    private final SearchEngine astar;
+
+    public AutoEngine() {
+        this(ASTAR);
+    }
+
+    // use astar for the close boards, like a SolverContext to reuse its memory
+    public AutoEngine(SearchEngine astar) {
+        if (astar == null) {
+            throw new IllegalArgumentException("engine cannot be null");
+        }
+        this.astar = astar;
+    }
+
+    public String name() {
+        return "auto";
+    }
+
+    public SearchResult search(Board initial, Goal goal, SearchControl control) {
+        return selectFor(initial, goal).search(initial, goal, control);
+    }
+
+    // the engine this one hands initial to
+    SearchEngine selectFor(Board initial, Goal goal) {
+        return select(initial, goal, astar);
+    }
+
+    // the engine we'd use for this board
+    public static SearchEngine select(Board initial) {
+        if (initial == null) {
+            throw new IllegalArgumentException("board cannot be null");
+        }
+        return select(initial, Goal.standard(initial.dimension()));
+    }
+
+    // the engine we'd use for this board and goal
+    public static SearchEngine select(Board initial, Goal goal) {
+        return select(initial, goal, ASTAR);
+    }
+
+    private static SearchEngine select(Board initial, Goal goal, SearchEngine astar) {
+        if (initial == null || goal == null) {
+            throw new IllegalArgumentException("board and goal cannot be null");
+        }
+        // IDA* spots unsolvable boards from the inversion count right away,
+        // A* would have to finish the twin search first
+        if (!initial.hasSolvableParity(goal)) return IDA_STAR;
+        if (initial.dimension() <= 4 && initial.manhattan(goal) <= ASTAR_LIMIT) return astar;
+        return IDA_STAR;
+    }
+}
@@ -1,19 +1,64 @@
 import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdOut;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class Board {
 
+    // lowest bit of every 4 bit tile
+    private static final long LOW_BITS = 0x1111111111111111L;
+
     private final int[][] tiles; // the board
     private final int n;         // size of board
+    private final int blank;     // where the blank is (row * n + col), -1 if none
+
+    // boards up to 4x4 also live in one long, 4 bits per tile, so hamming,
+    // isGoal and equals can work on the whole board at once. only set for
+    // proper boards (one blank, tiles 0 to n*n - 1), everything else uses
+    // the plain loops
+    private final long packed;
+    private final boolean hasPacked;
 
     public Board(int[][] blocks) {
         // make a copy of the board so we don't mess up the original
-        n = blocks.length;
-        tiles = new int[n][n];
+        this(copyOf(blocks), -1);
+    }
+
+    // takes the tiles as they are, no copy (only for boards we made ourselves)
+    private Board(int[][] tiles, int blank) {
+        this.tiles = tiles;
+        this.n = tiles.length;
+        this.blank = blank >= 0 ? blank : findBlank();
+
+        long word = 0;
+        int seen = 0;  // bit per tile, so repeats (two blanks, say) don't pack
+        boolean fits = n <= 4 && this.blank >= 0;
+        for (int cell = 0; fits && cell < n * n; cell++) {
+            int tile = tiles[cell / n][cell % n];
+            if (tile < 0 || tile >= n * n || (seen & (1 << tile)) != 0) fits = false;
+            seen |= 1 << tile;
+            word |= (long) tile << (4 * cell);
+        }
+        this.packed = fits ? word : 0;
+        this.hasPacked = fits;
+    }
+
+    // a neighbor of a packed board, packed word already worked out
+    private Board(int[][] tiles, int blank, long packed) {
+        this.tiles = tiles;
+        this.n = tiles.length;
+        this.blank = blank;
+        this.packed = packed;
+        this.hasPacked = true;
+    }
+
+    private static int[][] copyOf(int[][] blocks) {
+        int n = blocks.length;
+        int[][] copy = new int[n][n];
         for (int i = 0; i < n; i++) {
-            System.arraycopy(blocks[i], 0, tiles[i], 0, n);
+            System.arraycopy(blocks[i], 0, copy[i], 0, n);
         }
+        return copy;
     }
 
     public int dimension() {
@@ -21,44 +66,117 @@ public class Board {
         return n;
     }
 
+    // tile at (row, col), 0 for the blank
+    public int tileAt(int row, int col) {
+        return tiles[row][col];
+    }
+
     public int hamming() {
+        return hamming(Goal.standard(n));
+    }
+
+    // number of tiles out of place, for any goal
+    public int hamming(Goal goal) {
+        checkGoal(goal);
+        if (hasPacked && goal.hasWord()) {
+            return packedHamming(goal);
+        }
+
         // count how many tiles are in wrong place
         int count = 0;
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
-                // what number should be here
-                int expected = i * n + j + 1;
-
                 // blank doesn't count and has value 0
-                if (tiles[i][j] != 0 && tiles[i][j] != expected) {
-                    count++;
-                }
+                int tile = tiles[i][j];
+                int cell = i * n + j;
+                if (tile == 0 || tile == goal.tileAt(cell)) continue;
+                // a tile that isn't in the goal at all is in place where the
+                // standard goal would put it (cell + 1), same as manhattan
+                if ((tile < 0 || tile >= n * n) && tile == cell + 1) continue;
+                count++;
             }
         }
         return count;
     }
 
+    // hamming on the packed board: xor with the goal leaves a non-zero 4 bits
+    // exactly where a cell has the wrong tile, fold each one down to its low
+    // bit and count them. the blank's cell counts too unless the blank is
+    // already where the goal wants it, so take that one back off
+    private int packedHamming(Goal goal) {
+        long diff = packed ^ goal.word();
+        diff |= diff >>> 1;
+        diff |= diff >>> 2;
+        int wrong = Long.bitCount(diff & LOW_BITS);
+        return blank == goal.blankCell() ? wrong : wrong - 1;
+    }
+
     public int manhattan() {
-        // sum up how far each tile is from where it should be
+        return manhattan(Goal.standard(n));
+    }
+
+    // sum of manhattan distances to where each tile is in goal
+    public int manhattan(Goal goal) {
+        checkGoal(goal);
+        // times the call for a flight recording, free when there isn't one
+        SearchEvents.BoardCall event = new SearchEvents.BoardCall();
+        event.begin();
+        int sum = distanceSum(goal);
+        event.end();
+        if (event.shouldCommit()) {
+            event.call = "manhattan";
+            event.dimension = n;
+            event.commit();
+        }
+        return sum;
+    }
+
+    private int distanceSum(Goal goal) {
+        // the goal has every (tile, cell) distance ready, the blank's are all 0
+        int[] distance = goal.distanceTable();
+        int cells = n * n;
+
         int sum = 0;
+        if (distance == null) {
+            // too big for a table, work each one out
+            for (int cell = 0; cell < cells; cell++) {
+                sum += goal.distance(tiles[cell / n][cell % n], cell);
+            }
+            return sum;
+        }
+        if (hasPacked) {
+            // walk the packed word, 4 bits a tile
+            long word = packed;
+            for (int cell = 0; cell < cells; cell++) {
+                sum += distance[(int) (word & 0xF) * cells + cell];
+                word >>>= 4;
+            }
+            return sum;
+        }
+
+        // sum up how far each tile is from where it should be
+        // (tiles outside 0 .. n*n - 1 aren't in the table, Goal works those out)
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
-                int value = tiles[i][j];
-
-                // skip the blank
-                if (value != 0) {
-                    // figure out where it should be
-                    int targetRow = (value - 1) / n;
-                    int targetCol = (value - 1) % n;
-
-                    // add up the distance (manhattan = |x1-x2| + |y1-y2|)
-                    sum += Math.abs(i - targetRow) + Math.abs(j - targetCol);
-                }
+                int tile = tiles[i][j];
+                sum += tile >= 0 && tile < cells
+                        ? distance[tile * cells + i * n + j]
+                        : goal.distance(tile, i * n + j);
             }
         }
         return sum;
     }
 
+    private void checkGoal(Goal goal) {
+        if (goal == null) {
+            throw new IllegalArgumentException("goal cannot be null");
+        }
+        if (goal.dimension() != n) {
+            throw new IllegalArgumentException("goal is " + goal.dimension() + "x" + goal.dimension()
+                    + " but the board is " + n + "x" + n);
+        }
+    }
+
     public String toString() {
         // make a string to print the board
         StringBuilder sb = new StringBuilder();
@@ -82,6 +200,11 @@ public class Board {
         Board that = (Board) y;
         if (that.n != this.n) return false;
 
+        // small boards: one compare does it
+        if (this.hasPacked && that.hasPacked) {
+            return this.packed == that.packed;
+        }
+
         // check each tile
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
@@ -93,13 +216,13 @@ public class Board {
         return true;
     }
 
+    public int hashCode() {
+        return hasPacked ? Long.hashCode(packed) : Arrays.deepHashCode(tiles);
+    }
+
     // make a copy of the board
     private int[][] copyBoard() {
-        int[][] copy = new int[n][n];
-        for (int i = 0; i < n; i++) {
-            System.arraycopy(tiles[i], 0, copy[i], 0, n);
-        }
-        return copy;
+        return copyOf(tiles);
     }
 
     public Board twin() {
@@ -123,59 +246,179 @@ public class Board {
     }
 
     public boolean isGoal() {
+        return isGoal(Goal.standard(n));
+    }
+
+    // is this board the given goal?
+    public boolean isGoal(Goal goal) {
+        checkGoal(goal);
         // check if board is solved
+        if (hasPacked && goal.hasWord()) {
+            return packed == goal.word();
+        }
         // easy way: if hamming is 0, all tiles are in right place
-        return hamming() == 0;
+        return hamming(goal) == 0;
     }
 
     // find where the blank (0) is
-    private int[] findBlank() {
+    private int findBlank() {
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < n; j++) {
                 if (tiles[i][j] == 0) {
-                    return new int[] {i, j};
+                    return i * n + j;
                 }
             }
         }
-        return null; // should never happen
+        return -1; // no blank on this board
+    }
+
+    // where the blank is, as row * n + col (-1 if there is no blank)
+    public int blank() {
+        return blank;
     }
 
     public Iterable<Board> neighbors() {
         // get all possible moves from current board
-        ArrayList<Board> neighbors = new ArrayList<>();
-
-        // find the blank
-        int[] blank = findBlank();
-        assert blank != null;
-        int row = blank[0];
-        int col = blank[1];
-
-        // try all 4 directions: up, right, down, left
-        int[][] moves = {
-                {-1, 0},  // up
-                {0, 1},   // right
-                {1, 0},   // down
-                {0, -1}   // left
-        };
-
-        for (int[] move : moves) {
-            int newRow = row + move[0];
-            int newCol = col + move[1];
-
-            // make sure we're still on the board
-            if (newRow >= 0 && newRow < n && newCol >= 0 && newCol < n) {
-                // make a new board with the blank moved
-                int[][] newTiles = copyBoard();
-
-                // swap blank with tile
-                newTiles[row][col] = newTiles[newRow][newCol];
-                newTiles[newRow][newCol] = 0;
-
-                neighbors.add(new Board(newTiles));
+        ArrayList<Board> neighbors = new ArrayList<>(4);
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    // hand every neighbor to action, without building a list first
+    public void forEachNeighbor(Consumer<Board> action) {
+        forEachNeighbor(-1, action);
+    }
+
+    // same as above, but skips the neighbor where the blank ends up on cell
+    // skip (row * n + col). passing the parent's blank() skips the move that
+    // just undoes the last one, so there's no need to compare whole boards
+    public void forEachNeighbor(int skip, Consumer<Board> action) {
+        if (blank < 0) return;
+        MoveTable table = MoveTable.forSize(n);
+        int row = table.row[blank];
+        int col = table.col[blank];
+
+        // the table only has moves that stay on the board: up, right, down, left
+        for (int newBlank : table.moves[blank]) {
+            if (newBlank == skip) continue;
+            int newRow = table.row[newBlank];
+            int newCol = table.col[newBlank];
+
+            // make a new board with the blank moved
+            int[][] newTiles = copyBoard();
+
+            // swap blank with tile
+            newTiles[row][col] = newTiles[newRow][newCol];
+            newTiles[newRow][newCol] = 0;
+
+            if (hasPacked) {
+                // same swap on the packed word
+                long tile = (packed >>> (4 * newBlank)) & 0xF;
+                long word = (packed & ~(0xFL << (4 * newBlank))) | (tile << (4 * blank));
+                action.accept(new Board(newTiles, newBlank, word));
+            } else {
+                action.accept(new Board(newTiles, newBlank));
             }
         }
+    }
 
-        return neighbors;
+    // how many bits one tile takes when the board is packed into longs
+    // (at least 4, so boards up to 4x4 pack the same way as the packed field)
+    static int bitsPerTile(int n) {
+        return Math.max(4, 32 - Integer.numberOfLeadingZeros(n * n - 1));
+    }
+
+    // how many longs one packed board of size n takes (tiles never straddle two longs)
+    static int packedWords(int n) {
+        int perWord = 64 / bitsPerTile(n);
+        return (n * n + perWord - 1) / perWord;
+    }
+
+    // the whole board in one long, only for sizes where packedWords(n) == 1
+    long packedKey() {
+        if (hasPacked) return packed;
+        int bits = bitsPerTile(n);
+        long key = 0;
+        for (int cell = 0; cell < n * n; cell++) {
+            long tile = tiles[cell / n][cell % n];
+            key |= tile << (bits * cell);
+        }
+        return key;
+    }
+
+    // write this board into out[offset ...] as packedWords(n) longs
+    void pack(long[] out, int offset) {
+        int bits = bitsPerTile(n);
+        int perWord = 64 / bits;
+        int words = packedWords(n);
+        for (int w = 0; w < words; w++) {
+            out[offset + w] = 0;
+        }
+        for (int cell = 0; cell < n * n; cell++) {
+            long tile = tiles[cell / n][cell % n];
+            out[offset + cell / perWord] |= tile << (bits * (cell % perWord));
+        }
+    }
+
+    // turn packed longs back into a board (the opposite of pack)
+    static Board unpack(int n, long[] in, int offset) {
+        int bits = bitsPerTile(n);
+        int perWord = 64 / bits;
+        long mask = (1L << bits) - 1;
+        int[][] tiles = new int[n][n];
+        for (int cell = 0; cell < n * n; cell++) {
+            long word = in[offset + cell / perWord];
+            tiles[cell / n][cell % n] = (int) ((word >>> (bits * (cell % perWord))) & mask);
+        }
+        return new Board(tiles, -1);
+    }
+
+    // can this board reach the goal at all? counts inversions instead of
+    // searching, for solvers that don't want to run a twin search too
+    boolean hasSolvableParity() {
+        return hasSolvableParity(Goal.standard(n));
+    }
+
+    // same for any goal: a slide never changes parity(), so the board can
+    // only reach goals with the same parity (and it reaches all of them).
+    // boards that aren't a permutation of 0 .. n*n - 1 never reach any goal
+    boolean hasSolvableParity(Goal goal) {
+        checkGoal(goal);
+        return blank >= 0 && isPermutation() && parity() == goal.board().parity();
+    }
+
+    // every tile 0 .. n*n - 1 exactly once (packed boards already are)
+    private boolean isPermutation() {
+        if (hasPacked) return true;
+        boolean[] seen = new boolean[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int tile = tiles[i][j];
+                if (tile < 0 || tile >= n * n || seen[tile]) return false;
+                seen[tile] = true;
+            }
+        }
+        return true;
+    }
+
+    // odd boards: inversions mod 2
+    // even boards: inversions + blank row, mod 2
+    private int parity() {
+        int[] flat = new int[n * n - 1];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (tiles[i][j] != 0 && k < flat.length) flat[k++] = tiles[i][j];
+            }
+        }
+        int inversions = 0;
+        for (int a = 0; a < flat.length; a++) {
+            for (int b = a + 1; b < flat.length; b++) {
+                if (flat[a] > flat[b]) inversions++;
+            }
+        }
+        if (n % 2 == 1) return inversions % 2;
+        return (inversions + blank / n) % 2;
     }
 
     public static void main(String[] args) {
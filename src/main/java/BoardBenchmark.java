@@ -0,0 +1,186 @@
+/******************************************************************************
+ *  Times Board's hot paths against the way they used to be done, to check
+ *  the per-size lookup tables (Goal's distance table, MoveTable) pay off.
+ *
+ *  % java BoardBenchmark [n] [boards] [rounds]
+ *  % java BoardBenchmark 4 10000 20
+ *
+ *  n       board size (default 4)
+ *  boards  random boards to run over (default 10000)
+ *  rounds  timed passes over all the boards, after as many warm-up
+ *          passes (default 20)
+ *
+ *  The "arithmetic" rows are the original code kept here as a reference:
+ *  manhattan working out each tile's goal row and column as (tile - 1) / n
+ *  and (tile - 1) % n, and neighbor moves found by trying all 4 directions
+ *  and bounds checking them. "goal lookups" is manhattan as it was just
+ *  before the tables, reading the goal's targetRow / targetCol per tile.
+ *  Everything is measured against the standard goal. Prints the best
+ *  round for each in ns per board.
+ ******************************************************************************/
+
+import edu.princeton.cs.algs4.StdOut;
+
+public class BoardBenchmark {
+
+    // the 4 directions the blank can move: up, right, down, left
+    private static final int[] ROW_STEP = {-1, 0, 1, 0};
+    private static final int[] COL_STEP = {0, 1, 0, -1};
+
+    // stops the JIT from throwing the work away
+    private static long sink;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        Goal goal = Goal.standard(n);
+        Board[] boards = new Board[count];
+        int[][] flat = new int[count][];
+        for (int i = 0; i < count; i++) {
+            boards[i] = BoardGenerator.random(n);
+            flat[i] = new int[n * n];
+            for (int cell = 0; cell < n * n; cell++) {
+                flat[i][cell] = boards[i].tileAt(cell / n, cell % n);
+            }
+        }
+
+        StdOut.printf("%dx%d, %d boards, best of %d rounds%n", n, n, count, rounds);
+        StdOut.printf("%-26s %10s%n", "", "ns/board");
+
+        report("manhattan, arithmetic", time(rounds, count, () -> {
+            for (Board board : boards) sink += manhattanArithmetic(board, n);
+        }));
+        report("manhattan, goal lookups", time(rounds, count, () -> {
+            for (Board board : boards) sink += manhattanLookups(board, goal, n);
+        }));
+        report("manhattan, table", time(rounds, count, () -> {
+            for (Board board : boards) sink += board.manhattan(goal);
+        }));
+
+        // moves only, no boards made, so it's just the enumeration being timed
+        report("moves, bounds checks", time(rounds, count, () -> {
+            for (Board board : boards) sink += movesArithmetic(board.blank(), n);
+        }));
+        int[][] moveTable = MoveTable.of(n);
+        report("moves, table", time(rounds, count, () -> {
+            for (Board board : boards) {
+                for (int next : moveTable[board.blank()]) sink += next;
+            }
+        }));
+
+        // one IDA*-style step: slide every neighbor in and update h
+        report("child h, arithmetic", time(rounds, count, () -> {
+            for (int[] tiles : flat) sink += childrenArithmetic(tiles, n);
+        }));
+        int[] distance = goal.distanceTable();
+        report("child h, table", time(rounds, count, () -> {
+            for (int[] tiles : flat) sink += childrenTable(tiles, moveTable, distance, n);
+        }));
+
+        report("neighbors()", time(rounds, count, () -> {
+            for (Board board : boards) {
+                for (Board nb : board.neighbors()) sink += nb.blank();
+            }
+        }));
+
+        if (sink == 42) StdOut.println();
+    }
+
+    // warm up, then the fastest of rounds passes, in ns per board
+    private static double time(int rounds, int count, Runnable pass) {
+        for (int r = 0; r < rounds; r++) {
+            pass.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            pass.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / count;
+    }
+
+    private static void report(String label, double nanos) {
+        StdOut.printf("%-26s %10.1f%n", label, nanos);
+    }
+
+    private static int manhattanArithmetic(Board board, int n) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int value = board.tileAt(i, j);
+                if (value != 0) {
+                    int targetRow = (value - 1) / n;
+                    int targetCol = (value - 1) % n;
+                    sum += Math.abs(i - targetRow) + Math.abs(j - targetCol);
+                }
+            }
+        }
+        return sum;
+    }
+
+    private static int manhattanLookups(Board board, Goal goal, int n) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int value = board.tileAt(i, j);
+                if (value != 0) {
+                    sum += Math.abs(i - goal.targetRow(value)) + Math.abs(j - goal.targetCol(value));
+                }
+            }
+        }
+        return sum;
+    }
+
+    private static int movesArithmetic(int blank, int n) {
+        int sum = 0;
+        int row = blank / n;
+        int col = blank % n;
+        for (int d = 0; d < ROW_STEP.length; d++) {
+            int newRow = row + ROW_STEP[d];
+            int newCol = col + COL_STEP[d];
+            if (newRow < 0 || newRow >= n || newCol < 0 || newCol >= n) continue;
+            sum += newRow * n + newCol;
+        }
+        return sum;
+    }
+
+    private static int childrenArithmetic(int[] tiles, int n) {
+        int blank = blankOf(tiles);
+        int row = blank / n;
+        int col = blank % n;
+        int sum = 0;
+        for (int d = 0; d < ROW_STEP.length; d++) {
+            int newRow = row + ROW_STEP[d];
+            int newCol = col + COL_STEP[d];
+            if (newRow < 0 || newRow >= n || newCol < 0 || newCol >= n) continue;
+            int next = newRow * n + newCol;
+            int tile = tiles[next];
+            int targetRow = (tile - 1) / n;
+            int targetCol = (tile - 1) % n;
+            sum += Math.abs(blank / n - targetRow) + Math.abs(blank % n - targetCol)
+                    - Math.abs(next / n - targetRow) - Math.abs(next % n - targetCol);
+        }
+        return sum;
+    }
+
+    private static int childrenTable(int[] tiles, int[][] moveTable, int[] distance, int n) {
+        int blank = blankOf(tiles);
+        int cells = n * n;
+        int sum = 0;
+        for (int next : moveTable[blank]) {
+            int tile = tiles[next];
+            sum += distance[tile * cells + blank] - distance[tile * cells + next];
+        }
+        return sum;
+    }
+
+    private static int blankOf(int[] tiles) {
+        for (int cell = 0; cell < tiles.length; cell++) {
+            if (tiles[cell] == 0) return cell;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,93 @@
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+
+// Makes random solvable boards, for tests and load testing.
+// Uses StdRandom, so StdRandom.setSeed makes the boards repeatable.
+public class BoardGenerator {
+
+    // the 4 directions the blank can move: up, right, down, left
+    private static final int[] ROW_STEP = {-1, 0, 1, 0};
+    private static final int[] COL_STEP = {0, 1, 0, -1};
+
+    private static final SearchEngine SOLVER = new IdaStarEngine();
+
+    // atDepth gives up after this many steps per move of depth
+    // (small boards just don't have boards that far from the goal)
+    private static final int MAX_STEPS_PER_MOVE = 1000;
+
+    // a board picked uniformly from all solvable n-by-n boards. shuffles
+    // all tiles, and if that landed on an unsolvable board swaps two
+    // non-blank tiles; that swap pairs every unsolvable board with exactly
+    // one solvable one, so the result is still uniform
+    public static Board random(int n) {
+        if (n < 2) {
+            throw new IllegalArgumentException("board has to be at least 2x2");
+        }
+        int[] order = StdRandom.permutation(n * n);
+        int[][] tiles = new int[n][n];
+        for (int cell = 0; cell < n * n; cell++) {
+            tiles[cell / n][cell % n] = order[cell];
+        }
+
+        Board board = new Board(tiles);
+        if (board.hasSolvableParity()) {
+            return board;
+        }
+        return board.twin();
+    }
+
+    // a board whose shortest solution is exactly depth moves. walks the blank
+    // randomly away from the goal: every move changes the distance to the
+    // goal by exactly one, so checking after each step (with the solver) we
+    // can't jump past depth. deep boards take many solves, so keep depth
+    // to what the solver handles quickly for this size
+    public static Board atDepth(int n, int depth) {
+        if (n < 2) {
+            throw new IllegalArgumentException("board has to be at least 2x2");
+        }
+        if (depth < 0) {
+            throw new IllegalArgumentException("depth can't be negative");
+        }
+
+        // start at the goal
+        int[][] tiles = new int[n][n];
+        for (int cell = 0; cell < n * n - 1; cell++) {
+            tiles[cell / n][cell % n] = cell + 1;
+        }
+        int blank = n * n - 1;
+        int previous = -1;
+
+        for (int steps = 0; steps <= MAX_STEPS_PER_MOVE * (depth + 1); steps++) {
+            // distance and steps always have the same parity, and distance <= steps
+            if (steps >= depth && (steps - depth) % 2 == 0) {
+                Board board = new Board(tiles);
+                if (board.manhattan() <= depth && SOLVER.search(board).moves() == depth) {
+                    return board;
+                }
+            }
+
+            // move the blank somewhere new, but not straight back
+            int next;
+            do {
+                int d = StdRandom.uniform(ROW_STEP.length);
+                int row = blank / n + ROW_STEP[d];
+                int col = blank % n + COL_STEP[d];
+                next = row >= 0 && row < n && col >= 0 && col < n ? row * n + col : -1;
+            } while (next < 0 || next == previous);
+
+            tiles[blank / n][blank % n] = tiles[next / n][next % n];
+            tiles[next / n][next % n] = 0;
+            previous = blank;
+            blank = next;
+        }
+        throw new IllegalArgumentException("couldn't find a " + n + "x" + n + " board " + depth + " moves out");
+    }
+
+    // print a random board in the same format as the puzzle files
+    // usage: java BoardGenerator n [depth]
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        Board board = args.length > 1 ? atDepth(n, Integer.parseInt(args[1])) : random(n);
+        StdOut.print(board);
+    }
+}
@@ -0,0 +1,38 @@
+import java.io.*;
+import java.util.*;
+
+// SearchEngine wrapper around FrontierSolver, for boards whose open and
+// closed sets don't fit in memory
+public class FrontierEngine implements SearchEngine {
+
+    private final File tempDir;     // null means the system temp dir
+    private final int bufferBoards; // boards held in memory before spilling
+
+    public FrontierEngine() {
+        this(null, FrontierSolver.DEFAULT_BUFFER);
+    }
+
+    public FrontierEngine(File tempDir, int bufferBoards) {
+        if (bufferBoards < 1) {
+            throw new IllegalArgumentException("buffer has to hold at least one board");
+        }
+        this.tempDir = tempDir;
+        this.bufferBoards = bufferBoards;
+    }
+
+    public String name() {
+        return "frontier";
+    }
+
+    public SearchResult search(Board initial, Goal goal, SearchControl control) {
+        FrontierSolver solver = new FrontierSolver(initial, goal, tempDir, bufferBoards, control);
+        if (!solver.isSolvable()) {
+            return SearchResult.unsolvable();
+        }
+        List<Board> path = new ArrayList<>();
+        for (Board board : solver.solution()) {
+            path.add(board);
+        }
+        return SearchResult.solved(path);
+    }
+}
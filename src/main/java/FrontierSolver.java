@@ -0,0 +1,451 @@
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.MinPQ;
+import edu.princeton.cs.algs4.StdOut;
+import java.io.*;
+import java.nio.file.Files;
+import java.util.*;
+
+// Solver for boards too big to keep every node in memory. Does a breadth-first
+// heuristic search: one layer (all boards g moves away) at a time, dropping any
+// child with g + manhattan over the current bound. Only a buffer of children
+// lives in memory; when it fills up it gets sorted and written to disk as a run.
+// At the end of a layer the runs are merged into the next layer file, and that
+// merge is where duplicates get removed (delayed duplicate detection): the same
+// board twice in the runs, or a board already in the current or previous layer.
+// If a whole bound comes up empty, the bound goes up to the smallest f we pruned.
+// Spilling and merging can take a while on their own, so they poll the control
+// too, not just the expansions.
+public class FrontierSolver {
+
+    // how many boards we keep in memory before spilling them to disk
+    static final int DEFAULT_BUFFER = 1 << 20;
+
+    // most run files we merge at the same time
+    private static final int MAX_FAN_IN = 64;
+
+    private final int n;            // board size
+    private final int width;        // longs in one packed board
+    private final long[] buffer;    // packed children waiting to be spilled
+    private final long[] pivot;     // scratch record for sorting
+    private int buffered;           // how many boards are in the buffer
+    private int runCount;           // for naming run files
+    private File dir;               // where layers and runs go
+    private final SearchControl control;
+    private final Goal goal;
+
+    private boolean solvable;
+    private LinkedList<Board> path;
+
+    public FrontierSolver(Board initial) {
+        this(initial, null, DEFAULT_BUFFER);
+    }
+
+    // tempDir is where layer files go (null means the system temp dir),
+    // bufferBoards is how many boards we hold before spilling a run
+    public FrontierSolver(Board initial, File tempDir, int bufferBoards) {
+        this(initial, initial == null ? null : Goal.standard(initial.dimension()),
+                tempDir, bufferBoards, new SearchControl());
+    }
+
+    // same, but toward goal, and can be stopped or watched through control
+    public FrontierSolver(Board initial, Goal goal, File tempDir, int bufferBoards, SearchControl control) {
+        // throw error if board is null
+        if (initial == null) {
+            throw new IllegalArgumentException("board cannot be null");
+        }
+        if (bufferBoards < 1) {
+            throw new IllegalArgumentException("buffer has to hold at least one board");
+        }
+        if (goal == null || control == null) {
+            throw new IllegalArgumentException("goal and control cannot be null");
+        }
+        if (goal.dimension() != initial.dimension()) {
+            throw new IllegalArgumentException("goal and board have to be the same size");
+        }
+
+        this.control = control;
+        this.goal = goal;
+        n = initial.dimension();
+        width = Board.packedWords(n);
+        buffer = new long[bufferBoards * width];
+        pivot = new long[width];
+
+        try {
+            dir = tempDir == null
+                    ? Files.createTempDirectory("frontier").toFile()
+                    : Files.createTempDirectory(tempDir.toPath(), "frontier").toFile();
+            try {
+                search(initial);
+            } finally {
+                deleteAll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void search(Board initial) throws IOException {
+        // no twin search here, the inversion count tells us up front
+        if (!initial.hasSolvableParity(goal)) {
+            return;
+        }
+        solvable = true;
+
+        if (initial.isGoal(goal)) {
+            path = new LinkedList<>();
+            path.add(initial);
+            return;
+        }
+
+        // keep raising the bound until some layer reaches the goal
+        int bound = initial.manhattan(goal);
+        while (path == null) {
+            control.bound(bound);
+            bound = searchBound(initial, bound);
+        }
+    }
+
+    // search every layer within bound, returns the next bound to try
+    private int searchBound(Board initial, int bound) throws IOException {
+        long[] record = new long[width];
+        initial.pack(record, 0);
+
+        File previous = null;
+        File current = layerFile(0);
+        try (DataOutputStream out = openOut(current)) {
+            writeRecord(out, record, 0);
+        }
+
+        int nextBound = Integer.MAX_VALUE;
+        for (int g = 0; ; g++) {
+            List<File> runs = new ArrayList<>();
+            Board found = null;
+            control.phase(SearchControl.EXPAND);
+
+            try (DataInputStream in = openIn(current)) {
+                layer:
+                while (readRecord(in, record)) {
+                    Board board = Board.unpack(n, record, 0);
+                    control.expanded();
+                    for (Board child : board.neighbors()) {
+                        int f = g + 1 + control.manhattan(child, goal);
+                        if (f > bound) {
+                            nextBound = Math.min(nextBound, f);
+                            continue;
+                        }
+                        if (child.isGoal(goal)) {
+                            found = child;
+                            break layer;
+                        }
+                        child.pack(buffer, buffered * width);
+                        buffered++;
+                        if (buffered * width == buffer.length) {
+                            runs.add(spill());
+                        }
+                    }
+                }
+            }
+
+            if (found != null) {
+                buffered = 0;
+                for (File run : runs) {
+                    run.delete();
+                }
+                control.phase(SearchControl.OTHER);
+                rebuildPath(found, g + 1);
+                return bound;
+            }
+
+            if (buffered > 0) {
+                runs.add(spill());
+            }
+            File next = layerFile(g + 1);
+            control.phase(SearchControl.QUEUE);
+            if (mergeRuns(runs, next, previous, current) == 0) {
+                // nothing left under this bound
+                return nextBound;
+            }
+            previous = current;
+            current = next;
+        }
+    }
+
+    // walk back from the goal: every board in layer g + 1 came from some
+    // neighbor in layer g, so scan each layer for one of them
+    private void rebuildPath(Board goal, int depth) throws IOException {
+        path = new LinkedList<>();
+        path.addFirst(goal);
+
+        Board current = goal;
+        for (int g = depth - 1; g >= 0; g--) {
+            current = findParent(current, layerFile(g));
+            path.addFirst(current);
+        }
+    }
+
+    private Board findParent(Board child, File layer) throws IOException {
+        List<Board> options = new ArrayList<>();
+        for (Board nb : child.neighbors()) {
+            options.add(nb);
+        }
+        long[] packed = new long[options.size() * width];
+        for (int i = 0; i < options.size(); i++) {
+            options.get(i).pack(packed, i * width);
+        }
+
+        long[] record = new long[width];
+        try (DataInputStream in = openIn(layer)) {
+            while (readRecord(in, record)) {
+                for (int i = 0; i < options.size(); i++) {
+                    if (compare(record, 0, packed, i * width) == 0) {
+                        return options.get(i);
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("no parent found in " + layer.getName());
+    }
+
+    // sort the buffer and write it out without duplicates
+    // (the layers on disk are our open list, so this counts as queue work)
+    private File spill() throws IOException {
+        int previous = control.phase(SearchControl.QUEUE);
+        if (width == 1) {
+            Arrays.sort(buffer, 0, buffered);
+        } else {
+            quicksort(0, buffered - 1);
+        }
+
+        File run = new File(dir, "run-" + runCount++ + ".bin");
+        try (DataOutputStream out = openOut(run)) {
+            for (int i = 0; i < buffered; i++) {
+                if (i > 0 && compare(buffer, i * width, buffer, (i - 1) * width) == 0) {
+                    continue;
+                }
+                writeRecord(out, buffer, i * width);
+                control.poll();
+            }
+        }
+        buffered = 0;
+        control.phase(previous);
+        return run;
+    }
+
+    // merge all runs into target, skipping anything in skipA or skipB
+    // (both sorted, either can be null). returns how many boards got written
+    private long mergeRuns(List<File> runs, File target, File skipA, File skipB) throws IOException {
+        // too many runs to open at once, merge them in groups first
+        while (runs.size() > MAX_FAN_IN) {
+            List<File> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                List<File> group = runs.subList(i, Math.min(i + MAX_FAN_IN, runs.size()));
+                File run = new File(dir, "run-" + runCount++ + ".bin");
+                merge(group, run, null, null);
+                merged.add(run);
+            }
+            runs = merged;
+        }
+        return merge(runs, target, skipA, skipB);
+    }
+
+    private long merge(List<File> runs, File target, File skipA, File skipB) throws IOException {
+        MinPQ<Run> pq = new MinPQ<>();
+        List<Run> open = new ArrayList<>();
+        long written = 0;
+
+        try (DataOutputStream out = openOut(target)) {
+            Run a = skipA == null ? null : new Run(skipA);
+            Run b = skipB == null ? null : new Run(skipB);
+            if (a != null) open.add(a);
+            if (b != null) open.add(b);
+            for (File file : runs) {
+                Run run = new Run(file);
+                open.add(run);
+                if (run.more) pq.insert(run);
+            }
+
+            long[] last = new long[width];
+            boolean first = true;
+            while (!pq.isEmpty()) {
+                Run run = pq.delMin();
+                boolean duplicate = !first && compare(run.head, 0, last, 0) == 0;
+                if (!duplicate && !contains(a, run.head) && !contains(b, run.head)) {
+                    writeRecord(out, run.head, 0);
+                    written++;
+                }
+                System.arraycopy(run.head, 0, last, 0, width);
+                first = false;
+
+                run.advance();
+                if (run.more) pq.insert(run);
+                control.poll();
+            }
+        } finally {
+            for (Run run : open) {
+                run.in.close();
+            }
+        }
+
+        for (File file : runs) {
+            file.delete();
+        }
+        return written;
+    }
+
+    // move a sorted skip file forward to key and check if key is in it
+    private boolean contains(Run skip, long[] key) throws IOException {
+        if (skip == null) return false;
+        while (skip.more && compare(skip.head, 0, key, 0) < 0) {
+            skip.advance();
+        }
+        return skip.more && compare(skip.head, 0, key, 0) == 0;
+    }
+
+    // sort records lo..hi of the buffer (only needed when a board takes more than one long)
+    private void quicksort(int lo, int hi) {
+        while (lo < hi) {
+            System.arraycopy(buffer, ((lo + hi) >>> 1) * width, pivot, 0, width);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (compare(buffer, i * width, pivot, 0) < 0) i++;
+                while (compare(buffer, j * width, pivot, 0) > 0) j--;
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            // recurse on the smaller side so the stack stays small
+            if (j - lo < hi - i) {
+                quicksort(lo, j);
+                lo = i;
+            } else {
+                quicksort(i, hi);
+                hi = j;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        for (int w = 0; w < width; w++) {
+            long temp = buffer[i * width + w];
+            buffer[i * width + w] = buffer[j * width + w];
+            buffer[j * width + w] = temp;
+        }
+    }
+
+    private int compare(long[] a, int aOffset, long[] b, int bOffset) {
+        for (int w = 0; w < width; w++) {
+            int c = Long.compare(a[aOffset + w], b[bOffset + w]);
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    private File layerFile(int g) {
+        return new File(dir, "layer-" + g + ".bin");
+    }
+
+    private static DataOutputStream openOut(File file) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    }
+
+    private static DataInputStream openIn(File file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+    }
+
+    private void writeRecord(DataOutputStream out, long[] from, int offset) throws IOException {
+        for (int w = 0; w < width; w++) {
+            out.writeLong(from[offset + w]);
+        }
+    }
+
+    // read one board, false at the end of the file
+    private boolean readRecord(DataInputStream in, long[] into) throws IOException {
+        try {
+            into[0] = in.readLong();
+        } catch (EOFException e) {
+            return false;
+        }
+        for (int w = 1; w < width; w++) {
+            into[w] = in.readLong();
+        }
+        return true;
+    }
+
+    private void deleteAll() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    // one sorted file being read during a merge
+    private class Run implements Comparable<Run> {
+        private final DataInputStream in;
+        private final long[] head = new long[width];
+        private boolean more;
+
+        Run(File file) throws IOException {
+            in = openIn(file);
+            advance();
+        }
+
+        void advance() throws IOException {
+            more = readRecord(in, head);
+        }
+
+        public int compareTo(Run that) {
+            return compare(this.head, 0, that.head, 0);
+        }
+    }
+
+    // check if puzzle can be solved
+    public boolean isSolvable() {
+        return solvable;
+    }
+
+    // get number of moves needed
+    public int moves() {
+        if (!isSolvable()) {
+            return -1; // can't be solved
+        }
+        return path.size() - 1;
+    }
+
+    // get the steps to solve it
+    public Iterable<Board> solution() {
+        if (!isSolvable()) {
+            return null;
+        }
+        return path;
+    }
+
+    // main function to run the program
+    public static void main(String[] args) {
+        // get puzzle from file, optional second argument is the temp dir
+        In in = new In(args[0]);
+        int n = in.readInt();
+        int[][] blocks = new int[n][n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                blocks[i][j] = in.readInt();
+        Board initial = new Board(blocks);
+
+        File tempDir = args.length > 1 ? new File(args[1]) : null;
+        FrontierSolver solver = new FrontierSolver(initial, tempDir, DEFAULT_BUFFER);
+
+        // show the answer
+        if (!solver.isSolvable())
+            StdOut.println("No solution possible");
+        else {
+            StdOut.println("Minimum number of moves = " + solver.moves());
+            for (Board board : solver.solution())
+                StdOut.println(board);
+        }
+    }
+}
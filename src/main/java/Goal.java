@@ -0,0 +1,182 @@
+import java.util.*;
+
+// The board a search is trying to reach. The usual goal is 1 .. n*n - 1 with
+// the blank last, but any arrangement works: blank first, or any permutation.
+// Works out up front where every tile belongs (targetRow / targetCol), so
+// heuristics cost one lookup per tile whatever the goal is.
+public class Goal {
+
+    // standard goals are made once per size and shared
+    private static final Goal[] STANDARD = new Goal[32];
+
+    // the distance table has n^4 entries, past this it's too big to be worth it
+    private static final int TABLE_LIMIT = 16;
+
+    private final int n;
+    private final Board board;
+    private final int[] tiles;       // cell (row * n + col) -> tile
+    private final int[] targetRow;   // tile -> row it belongs in
+    private final int[] targetCol;   // tile -> column it belongs in
+    private final int[] distance;    // tile * n * n + cell -> manhattan distance, 0 for the blank (null past TABLE_LIMIT)
+    private final int blankCell;
+    private final boolean standard;
+
+    // goals up to 4x4 packed 4 bits per tile, same layout as Board's
+    private final long word;
+    private final boolean hasWord;
+
+    // any arrangement of 0 .. n*n - 1
+    public Goal(int[][] goalTiles) {
+        if (goalTiles == null) {
+            throw new IllegalArgumentException("goal cannot be null");
+        }
+        n = goalTiles.length;
+        if (n < 1) {
+            throw new IllegalArgumentException("goal has to be at least 1x1");
+        }
+
+        tiles = new int[n * n];
+        targetRow = new int[n * n];
+        targetCol = new int[n * n];
+        boolean[] seen = new boolean[n * n];
+        long packed = 0;
+        boolean inOrder = true;
+
+        for (int i = 0; i < n; i++) {
+            if (goalTiles[i] == null || goalTiles[i].length != n) {
+                throw new IllegalArgumentException("goal has to be n-by-n");
+            }
+            for (int j = 0; j < n; j++) {
+                int tile = goalTiles[i][j];
+                if (tile < 0 || tile >= n * n || seen[tile]) {
+                    throw new IllegalArgumentException("goal needs each of 0 to " + (n * n - 1) + " exactly once");
+                }
+                seen[tile] = true;
+
+                int cell = i * n + j;
+                tiles[cell] = tile;
+                targetRow[tile] = i;
+                targetCol[tile] = j;
+                packed |= (long) tile << (4 * cell);
+                if (tile != (cell + 1) % (n * n)) inOrder = false;
+            }
+        }
+
+        // every tile's distance from every cell, so heuristics are one lookup a tile
+        distance = n <= TABLE_LIMIT ? new int[n * n * n * n] : null;
+        for (int tile = 1; distance != null && tile < n * n; tile++) {
+            for (int cell = 0; cell < n * n; cell++) {
+                distance[tile * n * n + cell] = Math.abs(cell / n - targetRow[tile])
+                        + Math.abs(cell % n - targetCol[tile]);
+            }
+        }
+
+        blankCell = targetRow[0] * n + targetCol[0];
+        standard = inOrder;
+        hasWord = n <= 4;
+        word = hasWord ? packed : 0;
+        board = new Board(goalTiles);
+    }
+
+    // 1 .. n*n - 1 in row-major order, blank last
+    public static Goal standard(int n) {
+        if (n < STANDARD.length) {
+            // racing threads just build the same goal twice
+            Goal goal = STANDARD[n];
+            if (goal == null) {
+                goal = new Goal(layout(n, false));
+                STANDARD[n] = goal;
+            }
+            return goal;
+        }
+        return new Goal(layout(n, false));
+    }
+
+    // blank first, then 1 .. n*n - 1 in row-major order
+    public static Goal blankFirst(int n) {
+        return new Goal(layout(n, true));
+    }
+
+    private static int[][] layout(int n, boolean blankFirst) {
+        if (n < 1) {
+            throw new IllegalArgumentException("goal has to be at least 1x1");
+        }
+        int[][] layout = new int[n][n];
+        for (int cell = 0; cell < n * n; cell++) {
+            layout[cell / n][cell % n] = blankFirst ? cell : (cell + 1) % (n * n);
+        }
+        return layout;
+    }
+
+    public int dimension() {
+        return n;
+    }
+
+    // the goal as a board
+    public Board board() {
+        return board;
+    }
+
+    // is this the usual blank-last goal?
+    public boolean isStandard() {
+        return standard;
+    }
+
+    // tile that belongs on cell (row * n + col)
+    int tileAt(int cell) {
+        return tiles[cell];
+    }
+
+    int targetRow(int tile) {
+        return targetRow[tile];
+    }
+
+    int targetCol(int tile) {
+        return targetCol[tile];
+    }
+
+    // manhattan distance of tile if it sat on cell
+    int distance(int tile, int cell) {
+        if (tile < 0 || tile >= n * n) {
+            // not a real tile, measure from where the standard goal would
+            // put it, same as manhattan always did for boards like that
+            return Math.abs(cell / n - (tile - 1) / n) + Math.abs(cell % n - (tile - 1) % n);
+        }
+        if (distance != null) return distance[tile * n * n + cell];
+        if (tile == 0) return 0;
+        return Math.abs(cell / n - targetRow[tile]) + Math.abs(cell % n - targetCol[tile]);
+    }
+
+    // the whole table, tile * n * n + cell, for loops that want it directly
+    // (null for goals bigger than TABLE_LIMIT, use distance() then)
+    int[] distanceTable() {
+        return distance;
+    }
+
+    int blankCell() {
+        return blankCell;
+    }
+
+    boolean hasWord() {
+        return hasWord;
+    }
+
+    long word() {
+        return word;
+    }
+
+    public boolean equals(Object y) {
+        if (y == this) return true;
+        if (y == null || y.getClass() != this.getClass()) return false;
+        Goal that = (Goal) y;
+        return this.n == that.n && Arrays.equals(this.tiles, that.tiles);
+    }
+
+    public int hashCode() {
+        return Arrays.hashCode(tiles);
+    }
+
+    public String toString() {
+        return board.toString();
+    }
+}
@@ -0,0 +1,144 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Remembers heuristic values for boards that pack into one long (up to 4x4),
+// so the same board seen again doesn't get its heuristic recomputed.
+//
+// Fixed size, picked from a memory budget up front, and safe to share between
+// solver threads without locks. The table is split into buckets of WAYS slots.
+// A writer claims a slot by CASing its key to BUSY, writes the value, then
+// publishes the key; a reader checks the key before and after reading the
+// value, so it never returns a value that belongs to another board. When a
+// bucket is full we evict clock style: a hit sets the slot's reference bit,
+// and the bucket's hand clears bits as it sweeps until it finds a slot
+// without one. Since it's only a cache, a put that loses a race just gives up.
+public class HeuristicCache {
+
+    // slots per bucket (power of 2)
+    private static final int WAYS = 4;
+
+    // no valid board packs to these (they'd need every tile to be 0 or 15)
+    private static final long EMPTY = 0;
+    private static final long BUSY = -1;
+
+    // set in the value when the entry gets a hit
+    private static final long REFERENCED = 1L << 32;
+
+    // bytes per slot: key + value, plus a share of the bucket's hand
+    private static final int SLOT_BYTES = 8 + 8 + 4 / WAYS;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray values;
+    private final AtomicIntegerArray hands;
+    private final int bucketBits;
+    private final Goal goal;  // null means the standard goal of every size
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // a cache that takes at most about budgetBytes of memory, for
+    // searches toward the standard goal (of any size, their keys never clash)
+    public HeuristicCache(long budgetBytes) {
+        this(budgetBytes, null);
+    }
+
+    // same, but only for searches toward goal (values depend on the goal)
+    public HeuristicCache(long budgetBytes, Goal goal) {
+        this.goal = goal;
+        long slots = budgetBytes / SLOT_BYTES;
+        if (slots < WAYS) {
+            throw new IllegalArgumentException("budget too small for even one bucket");
+        }
+        // round down to a power of 2 number of buckets
+        long buckets = Long.highestOneBit(Math.min(slots / WAYS, 1 << 28));
+        bucketBits = Long.numberOfTrailingZeros(buckets);
+        keys = new AtomicLongArray((int) buckets * WAYS);
+        values = new AtomicLongArray((int) buckets * WAYS);
+        hands = new AtomicIntegerArray((int) buckets);
+    }
+
+    // can boards of this size go in the cache?
+    public static boolean fits(Board board) {
+        return Board.packedWords(board.dimension()) == 1;
+    }
+
+    // can searches toward this goal use the cache?
+    public boolean serves(Goal goal) {
+        return this.goal == null ? goal.isStandard() : this.goal.equals(goal);
+    }
+
+    // cached value for the board packed as key, -1 if we don't have it
+    public int get(long key) {
+        int base = bucket(key) * WAYS;
+        for (int i = 0; i < WAYS; i++) {
+            int slot = base + i;
+            if (keys.get(slot) != key) continue;
+            long value = values.get(slot);
+            // make sure nobody swapped the entry while we read it
+            if (keys.get(slot) != key) break;
+            if ((value & REFERENCED) == 0) {
+                values.compareAndSet(slot, value, value | REFERENCED);
+            }
+            hits.increment();
+            return (int) value;
+        }
+        misses.increment();
+        return -1;
+    }
+
+    public void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("heuristic values can't be negative");
+        }
+        if (key == EMPTY || key == BUSY) return;
+        int bucket = bucket(key);
+        int base = bucket * WAYS;
+
+        // already there, or a free slot
+        for (int i = 0; i < WAYS; i++) {
+            long current = keys.get(base + i);
+            if (current == key) return;
+            if (current == EMPTY && claim(base + i, EMPTY, key, value)) return;
+        }
+
+        // bucket is full: sweep the hand, giving referenced slots a second chance
+        for (int step = 0; step < 2 * WAYS; step++) {
+            int slot = base + (hands.getAndIncrement(bucket) & (WAYS - 1));
+            long current = keys.get(slot);
+            if (current == BUSY) continue;
+            long old = values.get(slot);
+            if ((old & REFERENCED) != 0) {
+                values.compareAndSet(slot, old, old & ~REFERENCED);
+                continue;
+            }
+            if (claim(slot, current, key, value)) return;
+        }
+    }
+
+    private boolean claim(int slot, long expected, long key, int value) {
+        if (!keys.compareAndSet(slot, expected, BUSY)) return false;
+        values.set(slot, value);
+        keys.set(slot, key);
+        return true;
+    }
+
+    private int bucket(long key) {
+        // fibonacci hashing, top bits are the best mixed
+        return bucketBits == 0 ? 0 : (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bucketBits));
+    }
+
+    // how many entries the cache can hold
+    public int capacity() {
+        return keys.length();
+    }
+
+    // totals over everyone using this cache
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,134 @@
+import java.util.*;
+
+// Iterative deepening A*: depth-first search cut off at g + manhattan > bound,
+// raising the bound to the smallest f that got cut each round. Works on one
+// mutable tile array and only remembers the current path, so memory stays
+// tiny even on 4x4 and 5x5 boards. Solvability comes from the inversion count,
+// since a twin search can't run in lockstep with a depth-first search.
+public class IdaStarEngine implements SearchEngine {
+
+    // returned by dfs when the goal is reached
+    private static final int FOUND = -1;
+
+    public String name() {
+        return "IDA*";
+    }
+
+    public SearchResult search(Board initial, Goal goal, SearchControl control) {
+        if (!initial.hasSolvableParity(goal)) {
+            return SearchResult.unsolvable();
+        }
+        return new Run(initial, goal, control).solve();
+    }
+
+    // state for one search, so the engine itself can be shared
+    private static class Run {
+        private final Board initial;
+        private final Goal goal;
+        private final SearchControl control;
+        private final int n;
+        private final int[][] moveTable;  // cell -> where the blank can go
+        private final int[] distance;     // tile * n * n + cell -> distance, null on huge boards
+        private final int[] tiles;  // row * n + col -> tile
+        private int blank;
+        private int[] moves = new int[64]; // blank cell after each move
+        private int depth;
+
+        Run(Board initial, Goal goal, SearchControl control) {
+            this.initial = initial;
+            this.goal = goal;
+            this.control = control;
+            this.n = initial.dimension();
+            this.moveTable = MoveTable.of(n);
+            this.distance = goal.distanceTable();
+            this.tiles = new int[n * n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    tiles[i * n + j] = initial.tileAt(i, j);
+                }
+            }
+            this.blank = initial.blank();
+        }
+
+        SearchResult solve() {
+            int h = control.manhattan(initial, goal);
+            int bound = h;
+            // no queue, and h is worked out incrementally: it's all expanding
+            control.phase(SearchControl.EXPAND);
+            while (true) {
+                control.bound(bound);
+                int t = dfs(0, bound, h, -1);
+                if (t == FOUND) {
+                    control.phase(SearchControl.OTHER);
+                    return SearchResult.solved(path());
+                }
+                bound = t;
+            }
+        }
+
+        private int dfs(int g, int bound, int h, int previous) {
+            int f = g + h;
+            if (f > bound) return f;
+            if (h == 0) return FOUND;
+            control.expanded();
+
+            int min = Integer.MAX_VALUE;
+            int cells = n * n;
+            for (int next : moveTable[blank]) {
+                // don't undo the last move
+                if (next == previous) continue;
+
+                // slide the tile into the blank, only its distance changes
+                int from = blank;
+                int tile = tiles[next];
+                int newH = distance != null
+                        ? h - distance[tile * cells + next] + distance[tile * cells + from]
+                        : h - goal.distance(tile, next) + goal.distance(tile, from);
+                tiles[from] = tile;
+                tiles[next] = 0;
+                blank = next;
+                push(next);
+
+                int t = dfs(g + 1, bound, newH, from);
+                if (t == FOUND) return FOUND;
+
+                // put it back
+                depth--;
+                tiles[next] = tile;
+                tiles[from] = 0;
+                blank = from;
+                if (t < min) min = t;
+            }
+            return min;
+        }
+
+        private void push(int cell) {
+            if (depth == moves.length) {
+                moves = Arrays.copyOf(moves, depth * 2);
+            }
+            moves[depth++] = cell;
+        }
+
+        // replay the moves from the initial board
+        private List<Board> path() {
+            List<Board> path = new ArrayList<>(depth + 1);
+            path.add(initial);
+
+            int[][] grid = new int[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    grid[i][j] = initial.tileAt(i, j);
+                }
+            }
+            int at = initial.blank();
+            for (int k = 0; k < depth; k++) {
+                int next = moves[k];
+                grid[at / n][at % n] = grid[next / n][next % n];
+                grid[next / n][next % n] = 0;
+                at = next;
+                path.add(new Board(grid));
+            }
+            return path;
+        }
+    }
+}
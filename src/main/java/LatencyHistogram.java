@@ -0,0 +1,83 @@
+// Histogram of latencies (or any non-negative longs) with fixed relative
+// precision, the way HdrHistogram does it: values under SUB_BUCKETS are
+// counted exactly, above that each power of 2 is split into SUB_BUCKETS / 2
+// equal slots, so any value is off by less than 2 / SUB_BUCKETS (about 1.6%).
+// Covers the whole long range in a few thousand counters.
+public class LatencyHistogram {
+
+    // slots per power of 2 is half this (power of 2)
+    private static final int SUB_BUCKETS = 128;
+    private static final int SUB_BITS = 7;
+    private static final int HALF = SUB_BUCKETS / 2;
+
+    private final long[] counts = new long[SUB_BUCKETS + (64 - SUB_BITS) * HALF];
+    private long total;
+    private long max;
+    private double sum;
+
+    public void record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("can't record negative values");
+        }
+        counts[index(value)]++;
+        total++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    // add everything recorded in that to this one
+    public void add(LatencyHistogram that) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += that.counts[i];
+        }
+        total += that.total;
+        sum += that.sum;
+        max = Math.max(max, that.max);
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public double mean() {
+        return total == 0 ? 0 : sum / total;
+    }
+
+    // smallest value v so that percentile% of the recorded values are <= v
+    // (up to the histogram's precision)
+    public long valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile has to be between 0 and 100");
+        }
+        if (total == 0) return 0;
+        long wanted = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= wanted) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        // which power of 2, and where in it
+        int bucket = 64 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> bucket);
+        return bucket * HALF + sub;
+    }
+
+    // biggest value that lands in slot i
+    private static long highestValue(int i) {
+        if (i < SUB_BUCKETS) return i;
+        int bucket = (i - SUB_BUCKETS) / HALF + 1;
+        long sub = i - (long) bucket * HALF;
+        return ((sub + 1) << bucket) - 1;
+    }
+}
@@ -0,0 +1,97 @@
+/******************************************************************************
+ *  Drives Solver with random boards at a fixed rate and prints latency
+ *  percentiles for each board size and solution depth.
+ *
+ *  % java LoadTest sizes count rate [depth]
+ *  % java LoadTest 3,4 1000000 5000 20
+ *
+ *  sizes  comma separated board sizes, boards are spread evenly over them
+ *  count  how many boards to solve in total
+ *  rate   boards per second to aim for
+ *  depth  make every board exactly this many moves from the goal
+ *         (without it boards are uniformly random, which is fine for 3x3
+ *         but far too hard for bigger boards)
+ *
+ *  Boards are generated up front (POOL per size) and reused, so the
+ *  generator's solves don't show up in the numbers. Latency is measured
+ *  from when a board was supposed to start, not when it actually did,
+ *  so a slow solve also counts against the boards stuck waiting behind it.
+ ******************************************************************************/
+
+import edu.princeton.cs.algs4.StdOut;
+import java.util.*;
+
+public class LoadTest {
+
+    // distinct boards generated per size
+    private static final int POOL = 10000;
+
+    public static void main(String[] args) {
+        String[] sizeArgs = args[0].split(",");
+        long count = Long.parseLong(args[1]);
+        double rate = Double.parseDouble(args[2]);
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : -1;
+
+        int[] sizes = new int[sizeArgs.length];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = Integer.parseInt(sizeArgs[i].trim());
+        }
+
+        // make the boards first
+        int poolSize = (int) Math.min(POOL, Math.max(1, count / sizes.length));
+        Board[][] pools = new Board[sizes.length][poolSize];
+        for (int s = 0; s < sizes.length; s++) {
+            for (int i = 0; i < poolSize; i++) {
+                pools[s][i] = depth < 0 ? BoardGenerator.random(sizes[s]) : BoardGenerator.atDepth(sizes[s], depth);
+            }
+        }
+
+        // one histogram per "n x n, depth d", sorted for printing
+        Map<String, LatencyHistogram> histograms = new TreeMap<>();
+        LatencyHistogram all = new LatencyHistogram();
+
+        long interval = (long) (1e9 / rate);
+        long start = System.nanoTime();
+        for (long k = 0; k < count; k++) {
+            int s = (int) (k % sizes.length);
+            Board board = pools[s][(int) ((k / sizes.length) % poolSize)];
+
+            // wait for this board's turn
+            long scheduled = start + k * interval;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                sleep(wait);
+            }
+
+            Solver solver = new Solver(board);
+            long latency = System.nanoTime() - scheduled;
+
+            String key = String.format("%dx%d depth %3d", sizes[s], sizes[s], solver.moves());
+            histograms.computeIfAbsent(key, x -> new LatencyHistogram()).record(latency);
+            all.record(latency);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        StdOut.printf("%d boards in %.1f s (%.0f/s, target %.0f/s)%n", count, seconds, count / seconds, rate);
+        StdOut.printf("%-18s %10s %10s %10s %10s %10s %10s%n",
+                "latency (us)", "count", "p50", "p90", "p99", "p99.9", "max");
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            print(entry.getKey(), entry.getValue());
+        }
+        print("all", all);
+    }
+
+    private static void print(String label, LatencyHistogram h) {
+        StdOut.printf("%-18s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n", label, h.count(),
+                h.valueAtPercentile(50) / 1e3, h.valueAtPercentile(90) / 1e3,
+                h.valueAtPercentile(99) / 1e3, h.valueAtPercentile(99.9) / 1e3, h.max() / 1e3);
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
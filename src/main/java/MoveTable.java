@@ -0,0 +1,69 @@
+import java.util.*;
+
+// Where the blank can go from each cell of an n-by-n board, worked out once
+// per size so move generation is a table walk instead of four bounds checks.
+// Cells are numbered row * n + col, and each cell's moves are listed in the
+// usual order: up, right, down, left. Also keeps each cell's row and column,
+// for code that still has to index a 2-D tiles array.
+public class MoveTable {
+
+    // tables for small sizes are built the first time they're asked for and
+    // shared. the fields are final, so any thread that sees a MoveTable here
+    // sees them fully written; racing threads just build it twice
+    private static final MoveTable[] TABLES = new MoveTable[32];
+
+    final int[][] moves;  // cell -> cells the blank can move to
+    final int[] row;      // cell -> its row
+    final int[] col;      // cell -> its column
+
+    private MoveTable(int n) {
+        moves = build(n);
+        row = new int[n * n];
+        col = new int[n * n];
+        for (int cell = 0; cell < n * n; cell++) {
+            row[cell] = cell / n;
+            col[cell] = cell % n;
+        }
+    }
+
+    // cell -> the cells the blank can move to from there
+    public static int[][] of(int n) {
+        return forSize(n).moves;
+    }
+
+    // all the tables for size n
+    static MoveTable forSize(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("board has to be at least 1x1");
+        }
+        if (n < TABLES.length) {
+            MoveTable table = TABLES[n];
+            if (table == null) {
+                table = new MoveTable(n);
+                TABLES[n] = table;
+            }
+            return table;
+        }
+        return new MoveTable(n);
+    }
+
+    private static int[][] build(int n) {
+        int[] rowStep = {-1, 0, 1, 0};
+        int[] colStep = {0, 1, 0, -1};
+
+        int[][] table = new int[n * n][];
+        int[] buffer = new int[4];
+        for (int cell = 0; cell < n * n; cell++) {
+            int count = 0;
+            for (int d = 0; d < 4; d++) {
+                int row = cell / n + rowStep[d];
+                int col = cell % n + colStep[d];
+                if (row >= 0 && row < n && col >= 0 && col < n) {
+                    buffer[count++] = row * n + col;
+                }
+            }
+            table[cell] = Arrays.copyOf(buffer, count);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,7 @@
+// gets told how a search is going: the f bound it's working on and how many
+// boards it has expanded so far. called on the search thread, so keep it quick
+@FunctionalInterface
+public interface ProgressListener {
+
+    void progress(int bound, long nodesExpanded);
+}
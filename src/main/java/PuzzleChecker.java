@@ -18,17 +18,61 @@
  *  puzzle43.txt: 43
  *  puzzle44.txt: 44
  *  puzzle45.txt: 45
+ *
+ *  With -moves first, each line also gets the moves (see SolutionVerifier):
+ *
+ *  % java PuzzleChecker -moves puzzle04.txt
+ *  puzzle04.txt: 4 RDRD
+ *
+ *  With -jfr and a file name, the run is recorded with Java Flight
+ *  Recorder (the JDK's default settings plus the events in SearchEvents)
+ *  and dumped to that file at the end, for JDK Mission Control or
+ *  `jfr print --events puzzle.Search checker.jfr`:
+ *
+ *  % java PuzzleChecker -jfr checker.jfr puzzle4x4-*.txt
  ******************************************************************************/
 
 import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdOut;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.*;
 
 public class PuzzleChecker {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, ParseException {
+        boolean printMoves = false;
+        String jfrFile = null;
+        List<String> filenames = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-moves")) {
+                printMoves = true;
+            } else if (args[i].equals("-jfr")) {
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("-jfr needs a file to write to");
+                }
+                jfrFile = args[++i];
+            } else {
+                filenames.add(args[i]);
+            }
+        }
+
+        Recording recording = null;
+        if (jfrFile != null) {
+            recording = new Recording(Configuration.getConfiguration("default"));
+            SearchEvents.enable(recording);
+            recording.start();
+        }
+
+        // one context for every file, so its arrays get reused
+        SearchEngine engine = new AutoEngine(new SolverContext());
 
-        // for each command-line argument
-        for (String filename : args) {
+        // for each board file
+        for (String filename : filenames) {
 
             // read in the board specified in the filename
             In in = new In(filename);
@@ -42,8 +86,19 @@ public class PuzzleChecker {
 
             // solve the slider puzzle
             Board initial = new Board(tiles);
-            Solver solver = new Solver(initial);
-            StdOut.println(filename + ": " + solver.moves());
+            Solver solver = new Solver(initial, engine);
+            if (printMoves && solver.moves() > 0) {
+                StdOut.println(filename + ": " + solver.moves() + " "
+                        + SolutionVerifier.moveString(solver.solution()));
+            } else {
+                StdOut.println(filename + ": " + solver.moves());
+            }
+        }
+
+        if (recording != null) {
+            recording.stop();
+            recording.dump(Paths.get(jfrFile));
+            recording.close();
         }
     }
 }
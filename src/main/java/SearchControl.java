@@ -0,0 +1,205 @@
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+// Lets a caller stop a search from another thread, give it a deadline, and
+// watch its progress. Engines call expanded() for every board they expand and
+// bound() when their f bound moves; the clock and the cancel flag are only
+// looked at every CHECK_EVERY expansions so the search loop stays cheap.
+// When the search has to stop, these throw CancellationException.
+// Engines with an open list call expanded(int) instead so its size can be
+// sampled, and bounds and samples go to a flight recording if one is on
+// (see SearchEvents). While a recording is on, Solver also turns on a
+// stopwatch here: engines call phase() when they switch between expanding,
+// heuristics and queue work, and the totals end up on the Search event.
+// Off, phase() is one untaken branch.
+// Engines also get heuristic values through manhattan(), which goes through
+// a shared HeuristicCache when there is one. One control is for one search,
+// but many controls can share a cache.
+public class SearchControl {
+
+    // expansions between looking at the clock (power of 2)
+    private static final int CHECK_EVERY = 1 << 12;
+
+    // what the search is doing, for the phase() stopwatch
+    static final int EXPAND = 0;     // making children, goal checks, incremental h
+    static final int HEURISTIC = 1;  // full heuristic calls (manhattan())
+    static final int QUEUE = 2;      // open list, duplicate checks, spilling runs
+    static final int OTHER = 3;      // anything else (setup, path rebuilding)
+
+    private final long deadline;     // System.nanoTime() to stop at
+    private final boolean hasDeadline;
+    private final ProgressListener listener;
+    private final HeuristicCache cache;
+
+    private volatile boolean cancelled;
+    private volatile boolean timedOut;
+    private volatile long expanded;  // count, published at every check
+    private volatile int bound;
+    private long count;              // only touched by the search thread
+    private long polls;              // same, for poll()
+    private long cacheHits;
+    private long cacheMisses;
+
+    // stopwatch, only running when profile() was called
+    private boolean profiling;
+    private int phase = OTHER;
+    private long phaseStart;
+    private final long[] phaseNanos = new long[4];
+
+    // no deadline, no listener, only stops when cancelled
+    public SearchControl() {
+        this(0, null, null);
+    }
+
+    // stop after timeout (0 means no deadline), report to listener (can be null)
+    public SearchControl(long timeout, TimeUnit unit, ProgressListener listener) {
+        this(timeout, unit, listener, null);
+    }
+
+    // same, and look heuristic values up in cache (can be null)
+    public SearchControl(long timeout, TimeUnit unit, ProgressListener listener, HeuristicCache cache) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout can't be negative");
+        }
+        this.hasDeadline = timeout > 0;
+        this.deadline = hasDeadline ? System.nanoTime() + unit.toNanos(timeout) : 0;
+        this.listener = listener;
+        this.cache = cache;
+    }
+
+    // ask the search to stop, it notices at its next check
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // did the search stop because it ran past the deadline?
+    public boolean timedOut() {
+        return timedOut;
+    }
+
+    // boards expanded so far (lags a little while the search is running)
+    public long nodesExpanded() {
+        return expanded;
+    }
+
+    public int bound() {
+        return bound;
+    }
+
+    // called by engines once per expanded board
+    void expanded() {
+        if ((++count & (CHECK_EVERY - 1)) == 0) {
+            check();
+        }
+    }
+
+    // same, for engines with an open list, whose size gets sampled
+    // into a flight recording at every check
+    void expanded(int openSize) {
+        if ((++count & (CHECK_EVERY - 1)) == 0) {
+            SearchEvents.OpenList event = new SearchEvents.OpenList();
+            if (event.shouldCommit()) {
+                event.size = openSize;
+                event.nodesExpanded = count;
+                event.commit();
+            }
+            check();
+        }
+    }
+
+    // called by engines during long stretches of other work (sorting, disk)
+    // so a cancel or deadline still gets noticed between expansions
+    void poll() {
+        if ((++polls & (CHECK_EVERY - 1)) == 0) {
+            check();
+        }
+    }
+
+    // called by engines for the heuristic of a board
+    int manhattan(Board board, Goal goal) {
+        int previous = phase(HEURISTIC);
+        int h;
+        if (cache == null || !HeuristicCache.fits(board) || !cache.serves(goal)) {
+            h = board.manhattan(goal);
+        } else {
+            long key = board.packedKey();
+            h = cache.get(key);
+            if (h >= 0) {
+                cacheHits++;
+            } else {
+                cacheMisses++;
+                h = board.manhattan(goal);
+                cache.put(key, h);
+            }
+        }
+        phase(previous);
+        return h;
+    }
+
+    // start timing phases, called by Solver when there's a recording to
+    // put them in
+    void profile() {
+        profiling = true;
+        phase = OTHER;
+        phaseStart = System.nanoTime();
+    }
+
+    // called by engines when they move on to another kind of work, adds the
+    // time since the last switch to the phase we were in. returns that
+    // phase, so a nested bit of work can switch back when it's done
+    int phase(int next) {
+        if (!profiling) return OTHER;
+        int previous = phase;
+        long now = System.nanoTime();
+        phaseNanos[previous] += now - phaseStart;
+        phaseStart = now;
+        phase = next;
+        return previous;
+    }
+
+    // total time spent in phase, 0 unless profile() was called
+    long phaseTime(int phase) {
+        return phaseNanos[phase];
+    }
+
+    // what this search has done so far, best read after it's finished
+    public SearchStats statistics() {
+        return new SearchStats(expanded, cacheHits, cacheMisses);
+    }
+
+    // called by engines when the f bound they're working on changes
+    void bound(int f) {
+        bound = f;
+        SearchEvents.Bound event = new SearchEvents.Bound();
+        if (event.shouldCommit()) {
+            event.bound = f;
+            event.nodesExpanded = count;
+            event.commit();
+        }
+        check();
+    }
+
+    // called by Solver when the search is over so the counts are exact
+    void finish() {
+        phase(OTHER);
+        expanded = count;
+    }
+
+    private void check() {
+        expanded = count;
+        if (cancelled) {
+            throw new CancellationException("search cancelled");
+        }
+        if (hasDeadline && System.nanoTime() - deadline >= 0) {
+            timedOut = true;
+            throw new CancellationException("search timed out");
+        }
+        if (listener != null) {
+            listener.progress(bound, expanded);
+        }
+    }
+}
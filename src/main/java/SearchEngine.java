@@ -0,0 +1,17 @@
+// One way of searching for a solution. Solver hands the board to an engine
+// and only keeps the result, so engines can be swapped per board or compared
+// against each other in the same run.
+public interface SearchEngine {
+
+    // short name for printing, like "A*" or "IDA*"
+    String name();
+
+    // find a shortest solution for initial, or report that there isn't one
+    default SearchResult search(Board initial) {
+        return search(initial, Goal.standard(initial.dimension()), new SearchControl());
+    }
+
+    // same, but toward goal, reporting to control, and throwing
+    // CancellationException if control says to stop
+    SearchResult search(Board initial, Goal goal, SearchControl control);
+}
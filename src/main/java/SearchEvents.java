@@ -0,0 +1,140 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+// Java Flight Recorder events for seeing where a slow solve spends its time.
+// All of them are off unless a recording turns them on (see enable below,
+// or PuzzleChecker -jfr), and while they're off an event is just a check
+// the JIT folds away, so leaving them in the search loop costs nothing.
+// None take stack traces, they'd cost more than the work they time.
+//
+//   Search     a whole Solver run: the engine that actually ran, size,
+//              answer, nodes, cache hits, and how the search time split
+//              into expanding, heuristics and queue work (SearchControl's
+//              phase stopwatch). sent for cancelled and timed out runs too
+//   Phase      one step of a Solver run: the search, then (with -ea) the
+//              replay that verifies the answer
+//   Bound      an engine moving on to a bigger f bound
+//   OpenList   open list size, sampled every few thousand expansions
+//   BoardCall  a Board.manhattan call, only the slow ones (over 20 us) by
+//              default, which is where stalls like GC pauses show up. set
+//              the threshold to 0 to get every call
+final class SearchEvents {
+
+    private SearchEvents() {
+    }
+
+    // turn every event on in recording, with their default thresholds
+    static void enable(Recording recording) {
+        recording.enable(Search.class);
+        recording.enable(Phase.class);
+        recording.enable(Bound.class);
+        recording.enable(OpenList.class);
+        recording.enable(BoardCall.class);
+    }
+
+    @Name("puzzle.Search")
+    @Label("Search")
+    @Category("Puzzle")
+    @Description("One Solver run from start to answer")
+    @Enabled(false)
+    @StackTrace(false)
+    static class Search extends Event {
+        @Label("Engine")
+        String engine;
+
+        @Label("Dimension")
+        int dimension;
+
+        @Label("Moves")
+        @Description("Moves in the answer, -1 if unsolvable or stopped early")
+        int moves;
+
+        @Label("Stopped Early")
+        @Description("Cancelled, past its deadline, or the engine failed")
+        boolean stopped;
+
+        @Label("Nodes Expanded")
+        long nodesExpanded;
+
+        @Label("Cache Hits")
+        long cacheHits;
+
+        @Label("Cache Misses")
+        long cacheMisses;
+
+        @Label("Expand Time")
+        @Description("Making children and goal checks, plus h on engines that work it out incrementally")
+        @Timespan(Timespan.NANOSECONDS)
+        long expandTime;
+
+        @Label("Heuristic Time")
+        @Description("Full heuristic calls, cache lookups included")
+        @Timespan(Timespan.NANOSECONDS)
+        long heuristicTime;
+
+        @Label("Queue Time")
+        @Description("Open list, duplicate checks, and spilling and merging runs")
+        @Timespan(Timespan.NANOSECONDS)
+        long queueTime;
+    }
+
+    @Name("puzzle.Phase")
+    @Label("Search Phase")
+    @Category("Puzzle")
+    @Enabled(false)
+    @StackTrace(false)
+    static class Phase extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("puzzle.Bound")
+    @Label("F Bound")
+    @Category("Puzzle")
+    @Description("The f bound a search is working on went up")
+    @Enabled(false)
+    @StackTrace(false)
+    static class Bound extends Event {
+        @Label("Bound")
+        int bound;
+
+        @Label("Nodes Expanded")
+        long nodesExpanded;
+    }
+
+    @Name("puzzle.OpenList")
+    @Label("Open List Size")
+    @Category("Puzzle")
+    @Enabled(false)
+    @StackTrace(false)
+    static class OpenList extends Event {
+        @Label("Size")
+        int size;
+
+        @Label("Nodes Expanded")
+        long nodesExpanded;
+    }
+
+    @Name("puzzle.BoardCall")
+    @Label("Board Call")
+    @Category("Puzzle")
+    @Description("A slow heuristic call on a Board")
+    @Enabled(false)
+    @Threshold("20 us")
+    @StackTrace(false)
+    static class BoardCall extends Event {
+        @Label("Call")
+        String call;
+
+        @Label("Dimension")
+        int dimension;
+    }
+}
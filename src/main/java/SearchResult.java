@@ -0,0 +1,41 @@
+import java.util.*;
+
+// what a SearchEngine found: either no solution, or the boards from the
+// initial board to the goal (both included)
+public class SearchResult {
+
+    private static final SearchResult UNSOLVABLE = new SearchResult(false, null);
+
+    private final boolean solvable;
+    private final List<Board> path;
+
+    private SearchResult(boolean solvable, List<Board> path) {
+        this.solvable = solvable;
+        this.path = path;
+    }
+
+    public static SearchResult unsolvable() {
+        return UNSOLVABLE;
+    }
+
+    public static SearchResult solved(List<Board> path) {
+        if (path == null || path.isEmpty()) {
+            throw new IllegalArgumentException("path needs at least the initial board");
+        }
+        return new SearchResult(true, Collections.unmodifiableList(path));
+    }
+
+    public boolean isSolvable() {
+        return solvable;
+    }
+
+    // -1 if there is no solution
+    public int moves() {
+        return solvable ? path.size() - 1 : -1;
+    }
+
+    // null if there is no solution
+    public List<Board> solution() {
+        return path;
+    }
+}
@@ -0,0 +1,38 @@
+// numbers from one finished search
+public class SearchStats {
+
+    private final long nodesExpanded;
+    private final long cacheHits;
+    private final long cacheMisses;
+
+    public SearchStats(long nodesExpanded, long cacheHits, long cacheMisses) {
+        this.nodesExpanded = nodesExpanded;
+        this.cacheHits = cacheHits;
+        this.cacheMisses = cacheMisses;
+    }
+
+    public long nodesExpanded() {
+        return nodesExpanded;
+    }
+
+    // heuristic lookups the HeuristicCache answered
+    public long cacheHits() {
+        return cacheHits;
+    }
+
+    // heuristic lookups that had to be computed
+    public long cacheMisses() {
+        return cacheMisses;
+    }
+
+    // fraction of lookups that hit, 0 if the cache wasn't used
+    public double cacheHitRate() {
+        long lookups = cacheHits + cacheMisses;
+        return lookups == 0 ? 0 : (double) cacheHits / lookups;
+    }
+
+    public String toString() {
+        return String.format("expanded %d, cache hits %d, misses %d (%.1f%%)",
+                nodesExpanded, cacheHits, cacheMisses, 100 * cacheHitRate());
+    }
+}
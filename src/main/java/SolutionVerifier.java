@@ -0,0 +1,224 @@
+/******************************************************************************
+ *  Checks that a solution really solves a board: every step slides one tile
+ *  into the blank, and the last board is the goal.
+ *
+ *  Moves are written as the direction the blank goes, one letter per move:
+ *  U (up), R (right), D (down), L (left). So "RD" on
+ *    1 2 3          1 2 3          1 2 3
+ *    4 0 5   -->    4 5 0   -->    4 5 6
+ *    7 8 6          7 8 6          7 8 0
+ *
+ *  As a program, checks a results file from PuzzleChecker -moves:
+ *
+ *  % java PuzzleChecker -moves puzzle*.txt > results.txt
+ *  % java SolutionVerifier results.txt
+ *  checked 150 results, 0 failed
+ *
+ *  A line that can't be read (no colon, bad move count, missing board
+ *  file) is reported as FAILED and the rest still get checked.
+ ******************************************************************************/
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+import java.util.NoSuchElementException;
+
+public class SolutionVerifier {
+
+    private static final String DIRECTIONS = "URDL";
+    private static final int[] ROW_STEP = {-1, 0, 1, 0};
+    private static final int[] COL_STEP = {0, 1, 0, -1};
+
+    // the board being replayed, flat (row * n + col). reused between calls
+    // so checking doesn't allocate once it's big enough
+    private int[] cells = new int[0];
+    private int n;
+    private int blank;
+
+    // does moves take initial to the goal, one legal slide at a time?
+    public boolean verify(Board initial, CharSequence moves) {
+        if (initial == null) {
+            throw new IllegalArgumentException("board cannot be null");
+        }
+        return verify(initial, Goal.standard(initial.dimension()), moves);
+    }
+
+    // same, for any goal
+    public boolean verify(Board initial, Goal goal, CharSequence moves) {
+        if (initial == null || goal == null || moves == null) {
+            throw new IllegalArgumentException("board, goal and moves cannot be null");
+        }
+        if (goal.dimension() != initial.dimension()) return false;
+        load(initial);
+        if (blank < 0) return false;
+
+        for (int k = 0; k < moves.length(); k++) {
+            int d = DIRECTIONS.indexOf(moves.charAt(k));
+            if (d < 0 || !slide(d)) return false;
+        }
+        return atGoal(goal);
+    }
+
+    // is solution a legal path from initial to the goal?
+    // (starts with initial, every next board is one slide away)
+    public boolean verify(Board initial, Iterable<Board> solution) {
+        if (initial == null) {
+            throw new IllegalArgumentException("board cannot be null");
+        }
+        return verify(initial, Goal.standard(initial.dimension()), solution);
+    }
+
+    // same, for any goal
+    public boolean verify(Board initial, Goal goal, Iterable<Board> solution) {
+        if (initial == null || goal == null || solution == null) {
+            throw new IllegalArgumentException("board, goal and solution cannot be null");
+        }
+        if (goal.dimension() != initial.dimension()) return false;
+        load(initial);
+        if (blank < 0) return false;
+
+        boolean first = true;
+        for (Board board : solution) {
+            if (board == null || board.dimension() != n) return false;
+            if (first) {
+                first = false;
+                if (!matches(board)) return false;
+                continue;
+            }
+            int d = direction(blank, board.blank(), n);
+            if (d < 0 || !slide(d) || !matches(board)) return false;
+        }
+        return !first && atGoal(goal);
+    }
+
+    // the moves of a solution as a string of U, R, D, L
+    public static String moveString(Iterable<Board> solution) {
+        StringBuilder sb = new StringBuilder();
+        Board previous = null;
+        for (Board board : solution) {
+            if (previous != null) {
+                int d = direction(previous.blank(), board.blank(), board.dimension());
+                if (d < 0) {
+                    throw new IllegalArgumentException("boards " + sb.length() + " and "
+                            + (sb.length() + 1) + " aren't one move apart");
+                }
+                sb.append(DIRECTIONS.charAt(d));
+            }
+            previous = board;
+        }
+        return sb.toString();
+    }
+
+    // which way the blank went to get from cell from to cell to, -1 if it's not one step
+    private static int direction(int from, int to, int n) {
+        if (from < 0 || to < 0) return -1;
+        for (int d = 0; d < ROW_STEP.length; d++) {
+            int row = from / n + ROW_STEP[d];
+            int col = from % n + COL_STEP[d];
+            if (row >= 0 && row < n && col >= 0 && col < n && row * n + col == to) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    private void load(Board board) {
+        n = board.dimension();
+        if (cells.length < n * n) {
+            cells = new int[n * n];
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                cells[i * n + j] = board.tileAt(i, j);
+            }
+        }
+        blank = board.blank();
+    }
+
+    // move the blank one step in direction d, false if that's off the board
+    private boolean slide(int d) {
+        int row = blank / n + ROW_STEP[d];
+        int col = blank % n + COL_STEP[d];
+        if (row < 0 || row >= n || col < 0 || col >= n) return false;
+        int next = row * n + col;
+        cells[blank] = cells[next];
+        cells[next] = 0;
+        blank = next;
+        return true;
+    }
+
+    private boolean matches(Board board) {
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (cells[i * n + j] != board.tileAt(i, j)) return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean atGoal(Goal goal) {
+        for (int cell = 0; cell < n * n; cell++) {
+            if (cells[cell] != goal.tileAt(cell)) return false;
+        }
+        return true;
+    }
+
+    // check every line of a PuzzleChecker -moves results file:
+    // "<puzzle file>: <moves> [<move string>]"
+    public static void main(String[] args) {
+        SolutionVerifier verifier = new SolutionVerifier();
+        int checked = 0;
+        int failed = 0;
+
+        In results = new In(args[0]);
+        while (results.hasNextLine()) {
+            String line = results.readLine().trim();
+            if (line.isEmpty()) continue;
+
+            // a line we can't even read counts as failed, then on to the next
+            boolean ok;
+            String reason = "";
+            try {
+                ok = checkLine(verifier, line);
+            } catch (IllegalArgumentException | NoSuchElementException e) {
+                ok = false;
+                reason = " (" + e.getMessage() + ")";
+            }
+
+            checked++;
+            if (!ok) {
+                failed++;
+                StdOut.println("FAILED " + line + reason);
+            }
+        }
+        StdOut.println("checked " + checked + " results, " + failed + " failed");
+    }
+
+    // one "file: moves path" line from PuzzleChecker -moves
+    private static boolean checkLine(SolutionVerifier verifier, String line) {
+        int colon = line.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("no ':' after the file name");
+        }
+        String filename = line.substring(0, colon);
+        String[] parts = line.substring(colon + 1).trim().split("\\s+");
+        int moves = Integer.parseInt(parts[0]);
+        String path = parts.length > 1 ? parts[1] : "";
+
+        // read in the board specified in the filename
+        In in = new In(filename);
+        int n = in.readInt();
+        int[][] tiles = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                tiles[i][j] = in.readInt();
+            }
+        }
+        Board initial = new Board(tiles);
+
+        if (moves < 0) {
+            // claimed unsolvable, the inversion count has to agree
+            return !initial.hasSolvableParity();
+        }
+        return path.length() == moves && verifier.verify(initial, path);
+    }
+}
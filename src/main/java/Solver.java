@@ -1,116 +1,185 @@
-import edu.princeton.cs.algs4.MinPQ;
 import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdOut;
-import java.util.*;
+import java.util.concurrent.*;
 
 public class Solver {
 
-    // class for game nodes
-    private static class SearchNode implements Comparable<SearchNode> {
-        private final Board board;
-        private final int moves;
-        private final SearchNode previous;
-        private final int priority;
-
-        public SearchNode(Board board, int moves, SearchNode previous) {
-            this.board = board;
-            this.moves = moves;
-            this.previous = previous;
-            // manhattan seems to work better
-            this.priority = board.manhattan() + moves;
-        }
+    // is -ea on? the verify phase only gets timed when it actually runs
+    private static final boolean ASSERTIONS;
 
-        public int compareTo(SearchNode that) {
-            return this.priority - that.priority;
-        }
+    static {
+        boolean on = false;
+        assert on = true;
+        ASSERTIONS = on;
     }
 
-    private SearchNode solution;
-    private boolean solvable;
+    private final SearchResult result;
+    private final SearchStats stats;
 
+    // solve with whichever engine suits the board best
     public Solver(Board initial) {
+        this(initial, new AutoEngine());
+    }
+
+    // solve toward some other goal than the usual one
+    public Solver(Board initial, Goal goal) {
+        this(initial, goal, new AutoEngine(), new SearchControl());
+    }
+
+    // solve with a specific engine
+    public Solver(Board initial, SearchEngine engine) {
+        this(initial, engine, new SearchControl());
+    }
+
+    // solve with a specific engine, stopping early (CancellationException)
+    // if control gets cancelled or runs past its deadline
+    public Solver(Board initial, SearchEngine engine, SearchControl control) {
+        this(initial, standardGoal(initial), engine, control);
+    }
+
+    // all of the above: goal, engine and control
+    public Solver(Board initial, Goal goal, SearchEngine engine, SearchControl control) {
         // throw error if board is null
         if (initial == null) {
             throw new IllegalArgumentException("board cannot be null");
         }
+        if (goal == null || engine == null || control == null) {
+            throw new IllegalArgumentException("goal, engine and control cannot be null");
+        }
+        if (goal.dimension() != initial.dimension()) {
+            throw new IllegalArgumentException("goal and board have to be the same size");
+        }
 
-        // need two queues for original and twin
-        MinPQ<SearchNode> pq = new MinPQ<>();
-        MinPQ<SearchNode> twinPq = new MinPQ<>();
-
-        // start the search
-        pq.insert(new SearchNode(initial, 0, null));
-        twinPq.insert(new SearchNode(initial.twin(), 0, null));
-
-        // keep searching until we find a solution
-        while (!pq.isEmpty() && !twinPq.isEmpty()) {
-            // get next boards to check
-            SearchNode node = pq.delMin();
-            SearchNode twinNode = twinPq.delMin();
-
-            // check if we solved it
-            if (node.board.isGoal()) {
-                solvable = true;
-                solution = node;
-                break;
+        // the whole run and each phase go to a flight recording if there's one
+        SearchEvents.Search event = new SearchEvents.Search();
+        event.begin();
+        if (event.isEnabled()) {
+            control.profile();
+        }
+        SearchEvents.Phase search = new SearchEvents.Phase();
+        search.begin();
+        SearchResult found = null;
+        try {
+            found = engine.search(initial, goal, control);
+        } finally {
+            control.finish();
+            search.phase = "search";
+            search.commit();
+            // stopped early, this is the last chance to record it
+            if (found == null) {
+                record(event, initial, goal, engine, control, null);
             }
+        }
+        result = found;
+        stats = control.statistics();
+
+        // with -ea every answer gets replayed before anyone sees it
+        if (ASSERTIONS) {
+            SearchEvents.Phase verify = new SearchEvents.Phase();
+            verify.begin();
+            assert !result.isSolvable() || new SolutionVerifier().verify(initial, goal, result.solution())
+                    : "engine " + engine.name() + " returned an illegal solution";
+            verify.phase = "verify";
+            verify.commit();
+        }
 
-            // check if twin is solved (means original can't be solved)
-            if (twinNode.board.isGoal()) {
-                solvable = false;
-                solution = null;
-                break;
-            }
+        record(event, initial, goal, engine, control, result);
+    }
 
-            // try all possible next moves
-            for (Board neighbor : node.board.neighbors()) {
-                // don't go back to previous board
-                if (node.previous != null && neighbor.equals(node.previous.board)) {
-                    continue;
-                }
-                pq.insert(new SearchNode(neighbor, node.moves + 1, node));
-            }
+    // commit the Search event, result is null if the search didn't finish
+    private static void record(SearchEvents.Search event, Board initial, Goal goal,
+                               SearchEngine engine, SearchControl control, SearchResult result) {
+        event.end();
+        if (!event.shouldCommit()) return;
+
+        // name the engine that did the work, not the one that picked it
+        SearchEngine ran = engine instanceof AutoEngine ? ((AutoEngine) engine).selectFor(initial, goal) : engine;
+        SearchStats stats = control.statistics();
+        event.engine = ran.name();
+        event.dimension = initial.dimension();
+        event.moves = result == null ? -1 : result.moves();
+        event.stopped = result == null;
+        event.nodesExpanded = stats.nodesExpanded();
+        event.cacheHits = stats.cacheHits();
+        event.cacheMisses = stats.cacheMisses();
+        event.expandTime = control.phaseTime(SearchControl.EXPAND);
+        event.heuristicTime = control.phaseTime(SearchControl.HEURISTIC);
+        event.queueTime = control.phaseTime(SearchControl.QUEUE);
+        event.commit();
+    }
+
+    private static Goal standardGoal(Board initial) {
+        if (initial == null) {
+            throw new IllegalArgumentException("board cannot be null");
+        }
+        return Goal.standard(initial.dimension());
+    }
+
+    // solve on the common pool instead of blocking, see below
+    public static CompletableFuture<Solver> solveAsync(Board initial, SearchControl control) {
+        return solveAsync(initial, new AutoEngine(), control, ForkJoinPool.commonPool());
+    }
 
-            // do same for twin
-            for (Board neighbor : twinNode.board.neighbors()) {
-                if (twinNode.previous != null && neighbor.equals(twinNode.previous.board)) {
-                    continue;
+    // solve on executor. the future fails with TimeoutException if control's
+    // deadline passes, and cancelling the future cancels the search too
+    public static CompletableFuture<Solver> solveAsync(Board initial, SearchEngine engine,
+                                                       SearchControl control, Executor executor) {
+        return solveAsync(initial, standardGoal(initial), engine, control, executor);
+    }
+
+    // same, toward goal
+    public static CompletableFuture<Solver> solveAsync(Board initial, Goal goal, SearchEngine engine,
+                                                       SearchControl control, Executor executor) {
+        if (initial == null) {
+            throw new IllegalArgumentException("board cannot be null");
+        }
+        if (goal == null || engine == null || control == null || executor == null) {
+            throw new IllegalArgumentException("goal, engine, control and executor cannot be null");
+        }
+
+        CompletableFuture<Solver> future = new CompletableFuture<>();
+        future.whenComplete((solver, error) -> {
+            if (future.isCancelled()) {
+                control.cancel();
+            }
+        });
+
+        executor.execute(() -> {
+            // someone may have given up before we even started
+            if (future.isDone()) return;
+            try {
+                future.complete(new Solver(initial, goal, engine, control));
+            } catch (CancellationException e) {
+                if (control.timedOut()) {
+                    future.completeExceptionally(new TimeoutException(e.getMessage()));
+                } else {
+                    future.cancel(false);
                 }
-                twinPq.insert(new SearchNode(neighbor, twinNode.moves + 1, twinNode));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
             }
-        }
+        });
+        return future;
     }
 
     // check if puzzle can be solved
     public boolean isSolvable() {
-        return solvable;
+        return result.isSolvable();
     }
 
     // get number of moves needed
     public int moves() {
-        if (!isSolvable()) {
-            return -1; // can't be solved
-        }
-        return solution.moves;
+        return result.moves(); // -1 if it can't be solved
     }
 
     // get the steps to solve it
     public Iterable<Board> solution() {
-        if (!isSolvable()) {
-            return null;
-        }
-
-        // make a list of all the boards in the solution
-        LinkedList<Board> path = new LinkedList<>();
-        SearchNode current = solution;
-
-        // add boards in the right order
-        while (current != null) {
-            path.addFirst(current.board);
-            current = current.previous;
-        }
+        return result.solution(); // null if it can't be solved
+    }
 
-        return path;
+    // nodes expanded and heuristic cache hits for this solve
+    public SearchStats statistics() {
+        return stats;
     }
 
     // main function to run the program
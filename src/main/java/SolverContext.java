@@ -0,0 +1,237 @@
+import java.util.*;
+
+// A* engine that keeps all its memory between solves, for running lots of
+// boards in a row (PuzzleChecker, load tests). Boards up to 4x4 are packed
+// into one long, so a search node is just a few ints and a long in parallel
+// arrays (the node arena), the open list is a binary heap of node numbers,
+// and a hash table maps each packed board to its best node so far, which
+// doubles as a closed set. Nothing gets cleared between solves: the arena
+// and heap just start over at 0, and hash slots carry the generation they
+// were written in, so bumping the generation empties the table in O(1).
+// Once the arrays have grown to fit the biggest search, solving allocates
+// nothing but the boards of the answer.
+//
+// One context per thread, it isn't safe to share. Boards bigger than 4x4
+// go to IDA*, which doesn't need much memory anyway.
+public class SolverContext implements SearchEngine {
+
+    private static final int INITIAL_NODES = 1 << 12;
+
+    private static final SearchEngine FALLBACK = new IdaStarEngine();
+
+    // node arena
+    private long[] state = new long[INITIAL_NODES];   // packed board
+    private int[] parent = new int[INITIAL_NODES];    // node we came from, -1 for the start
+    private int[] moves = new int[INITIAL_NODES];     // g
+    private int[] priority = new int[INITIAL_NODES];  // f = g + h
+    private int[] blank = new int[INITIAL_NODES];     // blank cell
+    private int nodes;
+
+    // open list: binary heap of node numbers, 1-based
+    private int[] heap = new int[INITIAL_NODES + 1];
+    private int heapSize;
+
+    // packed board -> best node, valid only where stamp == generation
+    private long[] keys = new long[2 * INITIAL_NODES];
+    private int[] values = new int[2 * INITIAL_NODES];
+    private int[] stamps = new int[2 * INITIAL_NODES];
+    private int generation;
+    private int entries;
+
+    private final long[] scratch = new long[1];
+
+    public String name() {
+        return "A* (reused)";
+    }
+
+    public SearchResult search(Board initial, Goal goal, SearchControl control) {
+        if (!initial.hasSolvableParity(goal)) {
+            return SearchResult.unsolvable();
+        }
+        if (initial.dimension() > 4) {
+            return FALLBACK.search(initial, goal, control);
+        }
+        reset();
+
+        int n = initial.dimension();
+        int cells = n * n;
+        int[][] moveTable = MoveTable.of(n);
+        int[] distance = goal.distanceTable();
+        long start = initial.packedKey();
+        int root = addNode(start, -1, 0, control.manhattan(initial, goal), initial.blank());
+        put(start, root);
+        push(root);
+
+        // children's h is worked out incrementally, so that counts as expanding
+        int bound = -1;
+        while (heapSize > 0) {
+            control.phase(SearchControl.QUEUE);
+            int node = pop();
+            // a better way to this board turned up after this one was queued
+            if (get(state[node]) != node) continue;
+            control.phase(SearchControl.EXPAND);
+
+            int f = priority[node];
+            int g = moves[node];
+            int h = f - g;
+            if (h == 0) {
+                control.phase(SearchControl.OTHER);
+                return SearchResult.solved(path(node, n));
+            }
+            if (f > bound) {
+                bound = f;
+                control.bound(bound);
+            }
+            control.expanded(heapSize);
+
+            long s = state[node];
+            int from = blank[node];
+            int back = parent[node] < 0 ? -1 : blank[parent[node]];
+            for (int next : moveTable[from]) {
+                if (next == back) continue;
+
+                // slide the tile into the blank on the packed board
+                int tile = (int) ((s >>> (4 * next)) & 0xF);
+                long child = (s & ~(0xFL << (4 * next))) | ((long) tile << (4 * from));
+                int childH = h - distance[tile * cells + next] + distance[tile * cells + from];
+
+                // only keep it if it's the best way there so far
+                control.phase(SearchControl.QUEUE);
+                int seen = get(child);
+                if (seen < 0 || moves[seen] > g + 1) {
+                    int childNode = addNode(child, node, g + 1, g + 1 + childH, next);
+                    put(child, childNode);
+                    push(childNode);
+                }
+                control.phase(SearchControl.EXPAND);
+            }
+        }
+        return SearchResult.unsolvable();
+    }
+
+    // forget the last search without clearing anything
+    private void reset() {
+        nodes = 0;
+        heapSize = 0;
+        entries = 0;
+        generation++;
+        if (generation == 0) {
+            // wrapped around after 4 billion solves, old stamps could match again
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    private int addNode(long board, int from, int g, int f, int blankCell) {
+        if (nodes == state.length) {
+            int size = 2 * nodes;
+            state = Arrays.copyOf(state, size);
+            parent = Arrays.copyOf(parent, size);
+            moves = Arrays.copyOf(moves, size);
+            priority = Arrays.copyOf(priority, size);
+            blank = Arrays.copyOf(blank, size);
+        }
+        state[nodes] = board;
+        parent[nodes] = from;
+        moves[nodes] = g;
+        priority[nodes] = f;
+        blank[nodes] = blankCell;
+        return nodes++;
+    }
+
+    // rebuild the boards from the goal node back to the start
+    private List<Board> path(int node, int n) {
+        LinkedList<Board> path = new LinkedList<>();
+        for (int k = node; k >= 0; k = parent[k]) {
+            scratch[0] = state[k];
+            path.addFirst(Board.unpack(n, scratch, 0));
+        }
+        return path;
+    }
+
+    // heap order: lower f first, and on ties the deeper node (closer to the goal)
+    private boolean before(int a, int b) {
+        if (priority[a] != priority[b]) return priority[a] < priority[b];
+        return moves[a] > moves[b];
+    }
+
+    private void push(int node) {
+        if (heapSize + 1 == heap.length) {
+            heap = Arrays.copyOf(heap, 2 * heap.length);
+        }
+        int k = ++heapSize;
+        // swim
+        while (k > 1 && before(node, heap[k / 2])) {
+            heap[k] = heap[k / 2];
+            k /= 2;
+        }
+        heap[k] = node;
+    }
+
+    private int pop() {
+        int top = heap[1];
+        int last = heap[heapSize--];
+        // sink
+        int k = 1;
+        while (2 * k <= heapSize) {
+            int j = 2 * k;
+            if (j < heapSize && before(heap[j + 1], heap[j])) j++;
+            if (!before(heap[j], last)) break;
+            heap[k] = heap[j];
+            k = j;
+        }
+        heap[k] = last;
+        return top;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (keys.length - 1);
+    }
+
+    // best node for board, -1 if we haven't seen it this solve
+    private int get(long key) {
+        for (int i = slot(key); stamps[i] == generation; i = (i + 1) & (keys.length - 1)) {
+            if (keys[i] == key) return values[i];
+        }
+        return -1;
+    }
+
+    private void put(long key, int node) {
+        if (2 * (entries + 1) > keys.length) {
+            grow();
+        }
+        int i = slot(key);
+        while (stamps[i] == generation) {
+            if (keys[i] == key) {
+                values[i] = node;
+                return;
+            }
+            i = (i + 1) & (keys.length - 1);
+        }
+        keys[i] = key;
+        values[i] = node;
+        stamps[i] = generation;
+        entries++;
+    }
+
+    // double the table, keeping this solve's entries
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldStamps = stamps;
+        keys = new long[2 * oldKeys.length];
+        values = new int[2 * oldKeys.length];
+        stamps = new int[2 * oldKeys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStamps[i] != generation) continue;
+            int j = slot(oldKeys[i]);
+            while (stamps[j] == generation) {
+                j = (j + 1) & (keys.length - 1);
+            }
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+            stamps[j] = generation;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import edu.princeton.cs.algs4.StdRandom;
+
+public class BoardGeneratorTest {
+
+    @Test
+    public void testRandomIsSolvable() {
+        StdRandom.setSeed(42);
+        for (int n = 2; n <= 6; n++) {
+            for (int i = 0; i < 100; i++) {
+                Board board = BoardGenerator.random(n);
+                assertEquals(n, board.dimension());
+                assertTrue(board.hasSolvableParity(), "Generated an unsolvable board:\n" + board);
+            }
+        }
+        // small enough to check with the twin search too
+        for (int i = 0; i < 5; i++) {
+            assertTrue(new Solver(BoardGenerator.random(3), new AStarEngine()).isSolvable());
+        }
+    }
+
+    @Test
+    public void testRandomCoversTwoByTwo() {
+        // 12 solvable 2x2 boards, a uniform generator should hit all of them
+        StdRandom.setSeed(7);
+        java.util.Set<String> seen = new java.util.HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            seen.add(BoardGenerator.random(2).toString());
+        }
+        assertEquals(12, seen.size());
+    }
+
+    @Test
+    public void testAtDepth() {
+        StdRandom.setSeed(1);
+        for (int depth = 0; depth <= 20; depth += 4) {
+            Board board3 = BoardGenerator.atDepth(3, depth);
+            assertEquals(depth, new Solver(board3).moves(), "3x3 board should be " + depth + " moves out.");
+            Board board4 = BoardGenerator.atDepth(4, depth);
+            assertEquals(depth, new Solver(board4).moves(), "4x4 board should be " + depth + " moves out.");
+        }
+    }
+}
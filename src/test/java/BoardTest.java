@@ -10,7 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 //import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.Test;
 
-//import edu.princeton.cs.algs4.StdRandom;
+import edu.princeton.cs.algs4.StdRandom;
 import edu.princeton.cs.algs4.In;
 
 import java.util.Arrays;
@@ -379,6 +379,157 @@ public class BoardTest {
         assertTrue(n4Found);
     }
 
+    @Test
+    public void testForEachNeighborSkip() {
+        Board testBoard = generateBoard("puzzle3x3-02.txt");
+        Board parent = new Board(new int[][] {
+                {1, 0, 3},
+                {4, 2, 5},
+                {7, 8, 6}
+        });
+        assertEquals(4, testBoard.blank());
+        assertEquals(1, parent.blank());
+
+        int[] count = new int[1];
+        testBoard.forEachNeighbor(parent.blank(), nb -> {
+            assertNotEquals(parent, nb, "Should skip the move back to the parent.");
+            count[0]++;
+        });
+        assertEquals(3, count[0]);
+
+        count[0] = 0;
+        testBoard.forEachNeighbor(nb -> count[0]++);
+        assertEquals(4, count[0]);
+    }
+
+    @Test
+    public void testPackedKernelsMatchLoops() {
+        // small boards take the packed path, check it against plain loops
+        for (int n = 2; n <= 5; n++) {
+            for (int k = 0; k < 200; k++) {
+                int[] order = StdRandom.permutation(n * n);
+                int[][] tiles = new int[n][n];
+                int expected = 0;
+                for (int cell = 0; cell < n * n; cell++) {
+                    int tile = order[cell];
+                    tiles[cell / n][cell % n] = tile;
+                    if (tile != 0 && tile != cell + 1) expected++;
+                }
+                Board board = new Board(tiles);
+                assertEquals(expected, board.hamming(), "Wrong hamming for\n" + board);
+                assertEquals(expected == 0, board.isGoal());
+
+                Board copy = new Board(tiles);
+                assertEquals(board, copy);
+                assertEquals(board.hashCode(), copy.hashCode());
+                for (Board nb : board.neighbors()) {
+                    assertNotEquals(board, nb);
+                    int[][] nbTiles = stringToTiles(nb.toString());
+                    assertEquals(new Board(nbTiles), nb, "Neighbor's packed word is off.");
+                    assertEquals(new Board(nbTiles).hashCode(), nb.hashCode());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRepeatedTilesNotPacked() {
+        // two blanks and no 1, in range but not a permutation, so it has to
+        // take the plain loops (only the 5 is out of place)
+        Board twoBlanks = new Board(new int[][] { {0, 2, 3}, {4, 0, 6}, {7, 8, 5} });
+        assertEquals(1, twoBlanks.hamming());
+        assertFalse(twoBlanks.isGoal());
+        assertEquals(twoBlanks, new Board(new int[][] { {0, 2, 3}, {4, 0, 6}, {7, 8, 5} }));
+        assertNotEquals(twoBlanks, new Board(new int[][] { {0, 2, 3}, {4, 0, 6}, {7, 5, 8} }));
+    }
+
+    @Test
+    public void testOutOfRangeTiles() {
+        // no blank and a 9, manhattan still measures it from where a 9
+        // would go (the last cell), like the plain formula always did
+        Board nine = new Board(new int[][] { {9, 2, 3}, {4, 5, 6}, {7, 8, 1} });
+        assertEquals(8, nine.manhattan());
+        assertEquals(2, nine.hamming());
+        assertFalse(nine.isGoal());
+
+        // and with everything where the plain formula wants it, it's a goal
+        Board nines = new Board(new int[][] { {1, 2, 3}, {4, 5, 6}, {7, 8, 9} });
+        assertEquals(0, nines.manhattan());
+        assertEquals(0, nines.hamming());
+        assertTrue(nines.isGoal());
+        Board fours = new Board(new int[][] { {1, 2}, {3, 4} });
+        assertEquals(0, fours.hamming());
+        assertTrue(fours.isGoal());
+
+        // a blank but a tile that can't exist: never solvable, and no engine
+        // should go near the distance table with it
+        Board big = new Board(new int[][] { {0, 2, 3}, {4, 5, 6}, {7, 8, 99} });
+        assertFalse(big.hasSolvableParity());
+        assertFalse(new Solver(big).isSolvable());
+        assertFalse(new Solver(big, new SolverContext()).isSolvable());
+    }
+
+    @Test
+    public void testCustomGoal() {
+        Goal blankFirst = Goal.blankFirst(3);
+        Board standard = generateBoard("puzzle3x3-00.txt");
+        assertTrue(blankFirst.board().isGoal(blankFirst));
+        assertFalse(standard.isGoal(blankFirst));
+        assertTrue(standard.isGoal(Goal.standard(3)));
+
+        // every tile is one cell short of where blank-first wants it,
+        // except 3 and 6 which have to wrap around to the next row
+        assertEquals(8, standard.hamming(blankFirst));
+        assertEquals(12, standard.manhattan(blankFirst));
+        assertEquals(0, blankFirst.board().manhattan(blankFirst));
+
+        // the standard goal gives the same numbers as the no-goal versions
+        for (int i = 0; i < 51; i++) {
+            Board test = generateBoard(String.format("puzzle%02d.txt", i));
+            Goal goal = Goal.standard(test.dimension());
+            assertEquals(test.manhattan(), test.manhattan(goal));
+            assertEquals(test.hamming(), test.hamming(goal));
+            assertEquals(test.isGoal(), test.isGoal(goal));
+        }
+    }
+
+    @Test
+    public void testLookupTables() {
+        // the move table should only have the on-board moves, in order
+        for (int n = 1; n <= 6; n++) {
+            int[][] table = MoveTable.of(n);
+            assertEquals(n * n, table.length);
+            for (int cell = 0; cell < n * n; cell++) {
+                int row = cell / n;
+                int col = cell % n;
+                int[] expected = {
+                        row > 0 ? cell - n : -1, col < n - 1 ? cell + 1 : -1,
+                        row < n - 1 ? cell + n : -1, col > 0 ? cell - 1 : -1 };
+                assertTrue(Arrays.equals(Arrays.stream(expected).filter(c -> c >= 0).toArray(), table[cell]),
+                        "Wrong moves from cell " + cell + " on " + n + "x" + n);
+            }
+        }
+
+        // table manhattan against plain arithmetic, packed, unpacked and
+        // too big for a table
+        for (int n : new int[] { 2, 3, 4, 5, 17 }) {
+            Goal goal = Goal.standard(n);
+            for (int k = 0; k < 50; k++) {
+                int[] order = StdRandom.permutation(n * n);
+                int[][] tiles = new int[n][n];
+                int expected = 0;
+                for (int cell = 0; cell < n * n; cell++) {
+                    int tile = order[cell];
+                    tiles[cell / n][cell % n] = tile;
+                    if (tile != 0) {
+                        expected += Math.abs(cell / n - (tile - 1) / n) + Math.abs(cell % n - (tile - 1) % n);
+                    }
+                }
+                assertEquals(expected, new Board(tiles).manhattan(goal));
+            }
+        }
+    }
+
     private int[][] stringToTiles(String input) {
         // helper method converts string representation of a board
         // into a 2D array on ints with the tiles from the board
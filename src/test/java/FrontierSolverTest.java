@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+public class FrontierSolverTest {
+
+    @Test
+    public void testMatchesSolver() {
+        for (int i = 0; i <= 20; i++) {
+            String filename = String.format("puzzle3x3-%02d.txt", i);
+            Board initial = TestBoards.load(filename);
+            // tiny buffer so every layer gets spilled into lots of runs
+            FrontierSolver frontier = new FrontierSolver(initial, null, 4);
+            assertTrue(frontier.isSolvable(), filename + " is solvable.");
+            assertEquals(i, frontier.moves(), "The puzzle from file " + filename + " can be solved in " + i + " moves.");
+        }
+    }
+
+    @Test
+    public void testSolutionIsConnected() {
+        Board initial = TestBoards.load("puzzle4x4-12.txt");
+        FrontierSolver frontier = new FrontierSolver(initial, null, 16);
+        assertEquals(12, frontier.moves());
+
+        Board previous = null;
+        int count = 0;
+        for (Board board : frontier.solution()) {
+            if (previous == null) {
+                assertEquals(initial, board);
+            } else {
+                boolean found = false;
+                for (Board nb : previous.neighbors()) {
+                    if (nb.equals(board)) found = true;
+                }
+                assertTrue(found, "Step " + count + " is not a single move.");
+            }
+            previous = board;
+            count++;
+        }
+        assertTrue(previous.isGoal());
+        assertEquals(13, count);
+    }
+
+    @Test
+    public void testFiveByFive() {
+        // packed 5x5 boards take more than one long
+        Board initial = new Board(new int[][] {
+                {1, 2, 3, 4, 5},
+                {6, 7, 8, 9, 10},
+                {11, 12, 13, 14, 15},
+                {16, 17, 0, 18, 20},
+                {21, 22, 23, 19, 24}
+        });
+        FrontierSolver frontier = new FrontierSolver(initial, null, 2);
+        assertEquals(3, frontier.moves());
+    }
+
+    @Test
+    public void testUnsolvable() {
+        assertFalse(new FrontierSolver(TestBoards.load("puzzle3x3-unsolvable.txt")).isSolvable());
+        assertFalse(new FrontierSolver(TestBoards.load("puzzle2x2-unsolvable1.txt")).isSolvable());
+        assertEquals(-1, new FrontierSolver(TestBoards.load("puzzle4x4-unsolvable.txt")).moves());
+    }
+}
@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class HeuristicCacheTest {
+
+    @Test
+    public void testGetPut() {
+        HeuristicCache cache = new HeuristicCache(1 << 16);
+        assertEquals(-1, cache.get(12345L));
+        cache.put(12345L, 7);
+        assertEquals(7, cache.get(12345L));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void testEvictionKeepsValuesRight() {
+        // tiny cache, so almost everything gets evicted
+        HeuristicCache cache = new HeuristicCache(1024);
+        assertTrue(cache.capacity() <= 1024 / 16);
+        for (long key = 1; key <= 10000; key++) {
+            cache.put(key, (int) (key % 100));
+        }
+        int found = 0;
+        for (long key = 1; key <= 10000; key++) {
+            int value = cache.get(key);
+            if (value >= 0) {
+                assertEquals(key % 100, value, "Wrong value for key " + key);
+                found++;
+            }
+        }
+        assertTrue(found > 0 && found <= cache.capacity());
+    }
+
+    @Test
+    public void testSharedBetweenThreads() throws InterruptedException {
+        HeuristicCache cache = new HeuristicCache(1 << 12);
+        Thread[] threads = new Thread[4];
+        boolean[] bad = new boolean[1];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int round = 0; round < 50; round++) {
+                    for (long key = 1; key <= 2000; key++) {
+                        int value = cache.get(key);
+                        if (value >= 0 && value != key % 1000) bad[0] = true;
+                        if (value < 0) cache.put(key, (int) (key % 1000));
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(!bad[0], "A reader got a value that belongs to another key.");
+    }
+
+    @Test
+    public void testSolverStatistics() {
+        HeuristicCache cache = new HeuristicCache(1 << 20);
+        Board initial = TestBoards.load("puzzle3x3-20.txt");
+
+        SearchControl first = new SearchControl(0, TimeUnit.SECONDS, null, cache);
+        Solver solver = new Solver(initial, new AStarEngine(), first);
+        assertEquals(20, solver.moves());
+        assertTrue(solver.statistics().cacheMisses() > 0);
+
+        // second run over the same boards should mostly hit
+        SearchControl second = new SearchControl(0, TimeUnit.SECONDS, null, cache);
+        Solver again = new Solver(initial, new AStarEngine(), second);
+        assertEquals(20, again.moves());
+        assertTrue(again.statistics().cacheHitRate() > 0.9, "Hit rate was " + again.statistics());
+    }
+}
@@ -0,0 +1,46 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100000; v++) {
+            h.record(v);
+        }
+        assertEquals(100000, h.count());
+        assertEquals(100000, h.max());
+        long[][] expected = {{50, 50000}, {90, 90000}, {99, 99000}, {100, 100000}};
+        for (long[] e : expected) {
+            long got = h.valueAtPercentile(e[0]);
+            assertTrue(Math.abs(got - e[1]) <= e[1] * 2 / 100, "p" + e[0] + " was " + got);
+        }
+    }
+
+    @Test
+    public void testSmallValuesExact() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int v = 0; v < 100; v++) {
+            h.record(v);
+        }
+        assertEquals(49, h.valueAtPercentile(50));
+        assertEquals(0, h.valueAtPercentile(0));
+        assertEquals(99, h.valueAtPercentile(100));
+        assertEquals(49.5, h.mean());
+    }
+
+    @Test
+    public void testAdd() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(10);
+        b.record(1000000);
+        a.add(b);
+        assertEquals(2, a.count());
+        assertEquals(1000000, a.max());
+        assertEquals(10, a.valueAtPercentile(50));
+    }
+}
@@ -0,0 +1,65 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+public class SearchEventsTest {
+
+    @Test
+    public void testSearchEvents() throws Exception {
+        File file = File.createTempFile("search", ".jfr");
+        try (Recording recording = new Recording()) {
+            SearchEvents.enable(recording);
+            recording.start();
+
+            // far enough out that auto hands it to IDA*
+            Board far = TestBoards.load("puzzle4x4-30.txt");
+            assertEquals(30, new Solver(far).moves());
+
+            // 3x3 boards close to the goal go to A*, which has a queue to time
+            Board close = TestBoards.load("puzzle3x3-10.txt");
+            assertEquals(10, new Solver(close).moves());
+
+            // and one that runs out of time
+            SearchControl control = new SearchControl(20, TimeUnit.MILLISECONDS, null);
+            assertThrows(CancellationException.class,
+                    () -> new Solver(TestBoards.load("puzzle4x4-80.txt"), new IdaStarEngine(), control));
+
+            recording.stop();
+            recording.dump(file.toPath());
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file.toPath());
+        file.delete();
+        int searches = 0;
+        for (RecordedEvent event : events) {
+            if (!event.getEventType().getName().equals("puzzle.Search")) continue;
+            searches++;
+            int moves = event.getInt("moves");
+            if (moves == 30) {
+                assertEquals("IDA*", event.getString("engine"));
+                assertTrue(event.getDuration("expandTime").toNanos() > 0);
+                assertFalse(event.getBoolean("stopped"));
+            } else if (moves == 10) {
+                assertEquals("A*", event.getString("engine"));
+                assertTrue(event.getDuration("heuristicTime").toNanos() > 0);
+                assertTrue(event.getDuration("queueTime").toNanos() > 0);
+            } else {
+                assertEquals(-1, moves);
+                assertTrue(event.getBoolean("stopped"), "A timed out search should say so.");
+            }
+        }
+        assertEquals(3, searches, "Every search should be recorded, finished or not.");
+    }
+}
@@ -0,0 +1,63 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SolutionVerifierTest {
+
+    @Test
+    public void testMoveString() {
+        Board initial = TestBoards.load("puzzle04.txt");
+        SolutionVerifier verifier = new SolutionVerifier();
+        assertTrue(verifier.verify(initial, "RDRD"));
+        assertFalse(verifier.verify(initial, "RDR"), "Doesn't end at the goal.");
+        assertFalse(verifier.verify(initial, "URDRD"), "First move is off the board.");
+        assertFalse(verifier.verify(initial, "RDRX"), "X isn't a move.");
+        assertTrue(verifier.verify(TestBoards.load("puzzle00.txt"), ""));
+    }
+
+    @Test
+    public void testSolverSolutions() {
+        SolutionVerifier verifier = new SolutionVerifier();
+        for (int i = 0; i <= 20; i++) {
+            Board initial = TestBoards.load(String.format("puzzle4x4-%02d.txt", i));
+            Solver solver = new Solver(initial);
+            assertTrue(verifier.verify(initial, solver.solution()));
+            String moves = SolutionVerifier.moveString(solver.solution());
+            assertEquals(i, moves.length());
+            assertTrue(verifier.verify(initial, moves));
+        }
+    }
+
+    @Test
+    public void testBadPaths() {
+        Board initial = TestBoards.load("puzzle3x3-05.txt");
+        List<Board> path = new ArrayList<>();
+        for (Board board : new Solver(initial).solution()) {
+            path.add(board);
+        }
+        SolutionVerifier verifier = new SolutionVerifier();
+        assertTrue(verifier.verify(initial, path));
+
+        // skip a board in the middle
+        List<Board> skipped = new ArrayList<>(path);
+        skipped.remove(2);
+        assertFalse(verifier.verify(initial, skipped));
+
+        // stop early
+        assertFalse(verifier.verify(initial, path.subList(0, path.size() - 1)));
+
+        // start somewhere else
+        assertFalse(verifier.verify(initial, path.subList(1, path.size())));
+
+        // swap two tiles without using the blank
+        List<Board> cheated = new ArrayList<>();
+        cheated.add(initial);
+        cheated.add(initial.twin());
+        assertFalse(verifier.verify(initial, cheated));
+    }
+}
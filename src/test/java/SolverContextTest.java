@@ -0,0 +1,47 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+
+public class SolverContextTest {
+
+    @Test
+    public void testReusedAcrossSolves() {
+        // same context the whole way, answers must not leak between solves
+        SolverContext context = new SolverContext();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i <= 25; i++) {
+                Solver solver = new Solver(TestBoards.load(String.format("puzzle3x3-%02d.txt", i)), context);
+                assertEquals(i, solver.moves(), "puzzle3x3-" + i + " in round " + round);
+            }
+            for (int i = 0; i <= 30; i++) {
+                Solver solver = new Solver(TestBoards.load(String.format("puzzle4x4-%02d.txt", i)), context);
+                assertEquals(i, solver.moves(), "puzzle4x4-" + i + " in round " + round);
+            }
+        }
+    }
+
+    @Test
+    public void testUnsolvableAndBig() {
+        SolverContext context = new SolverContext();
+        assertFalse(new Solver(TestBoards.load("puzzle3x3-unsolvable.txt"), context).isSolvable());
+        assertFalse(new Solver(TestBoards.load("puzzle4x4-unsolvable.txt"), context).isSolvable());
+        // 5x5 goes to IDA*
+        Solver big = new Solver(TestBoards.load("puzzle12.txt"), context);
+        assertTrue(big.isSolvable());
+        assertEquals(12, big.moves());
+    }
+
+    @Test
+    public void testCustomGoal() {
+        SolverContext context = new SolverContext();
+        Goal blankFirst = Goal.blankFirst(3);
+        for (int i = 0; i <= 10; i++) {
+            Board initial = TestBoards.load(String.format("puzzle3x3-%02d.txt", i));
+            Solver reused = new Solver(initial, blankFirst, context, new SearchControl());
+            Solver fresh = new Solver(initial, blankFirst, new IdaStarEngine(), new SearchControl());
+            assertEquals(fresh.moves(), reused.moves());
+        }
+    }
+}
@@ -1,9 +1,9 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 //import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-//import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 //import static org.junit.jupiter.api.Assertions.assertNotNull;
-//import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 //import static org.junit.jupiter.api.Assertions.fail;
 
 //import org.junit.jupiter.api.BeforeEach;
@@ -11,22 +11,14 @@ import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.Test;
 
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.In;
+
+import java.util.concurrent.*;
 
 public class SolverTest {
 
     private Solver generateSolver(String filename) {
-        // create initial board from file
-        In in = new In("./8puzzle-test-files/" + filename);
-        int n = in.readInt();
-        int[][] blocks = new int[n][n];
-        for (int i = 0; i < n; i++)
-            for (int j = 0; j < n; j++)
-                blocks[i][j] = in.readInt();
-        Board initial = new Board(blocks);
-
-        // solve the puzzle
-        return new Solver(initial);
+        // create initial board from file and solve the puzzle
+        return new Solver(TestBoards.load(filename));
     }
 
     @Test
@@ -127,4 +119,80 @@ public class SolverTest {
         assertTrue(solver.isSolvable());
         assertEquals(30, solver.moves());
     }
+
+    @Test
+    public void testEnginesAgree() {
+        SearchEngine[] engines = {new AStarEngine(), new IdaStarEngine(), new FrontierEngine(), new AutoEngine()};
+        for (int i = 0; i <= 20; i++) {
+            String filename = String.format("puzzle3x3-%02d.txt", i);
+            Board initial = TestBoards.load(filename);
+            for (SearchEngine engine : engines) {
+                Solver solver = new Solver(initial, engine);
+                assertEquals(i, solver.moves(), engine.name() + " got the wrong answer for " + filename);
+            }
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    public void testUnsolvableFours() {
+        // the auto engine shouldn't get stuck in a twin search here
+        Solver testSolver = generateSolver("puzzle4x4-unsolvable.txt");
+        assertFalse(testSolver.isSolvable(), "The puzzle from file puzzle4x4-unsolvable.txt is not solvable.");
+        assertEquals(-1, testSolver.moves());
+    }
+
+    @Test
+    @Timeout(5)
+    public void testSolveAsync() throws Exception {
+        long[] reports = new long[1];
+        SearchControl control = new SearchControl(0, TimeUnit.SECONDS, (bound, expanded) -> reports[0]++);
+        Solver solver = Solver.solveAsync(TestBoards.load("puzzle4x4-30.txt"), control).get();
+        assertEquals(30, solver.moves());
+        assertTrue(reports[0] > 0, "The listener should hear about bound changes.");
+        assertTrue(control.nodesExpanded() > 0);
+    }
+
+    @Test
+    @Timeout(5)
+    public void testSolveAsyncDeadline() {
+        // way too hard to finish in 50 ms
+        SearchControl control = new SearchControl(50, TimeUnit.MILLISECONDS, null);
+        CompletableFuture<Solver> future = Solver.solveAsync(TestBoards.load("puzzle4x4-80.txt"), control);
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof TimeoutException);
+        assertTrue(control.timedOut());
+    }
+
+    @Test
+    @Timeout(5)
+    public void testSolveAsyncCancel() throws Exception {
+        SearchControl control = new SearchControl();
+        CompletableFuture<Solver> future = Solver.solveAsync(TestBoards.load("puzzle4x4-80.txt"), control);
+        Thread.sleep(20);
+        future.cancel(true);
+        assertTrue(control.isCancelled(), "Cancelling the future should cancel the search.");
+        assertThrows(CancellationException.class, future::get);
+    }
+
+    @Test
+    public void testCustomGoal() {
+        Goal blankFirst = Goal.blankFirst(3);
+        SearchEngine[] engines = {new AStarEngine(), new IdaStarEngine(), new FrontierEngine()};
+        SolutionVerifier verifier = new SolutionVerifier();
+        for (int i = 0; i <= 10; i++) {
+            Board initial = TestBoards.load(String.format("puzzle3x3-%02d.txt", i));
+            int moves = new Solver(initial, blankFirst).moves();
+            assertTrue(moves >= 0, "3x3 boards can reach the blank-first goal.");
+            for (SearchEngine engine : engines) {
+                Solver solver = new Solver(initial, blankFirst, engine, new SearchControl());
+                assertEquals(moves, solver.moves(), engine.name() + " disagrees on puzzle3x3-" + i);
+                assertTrue(verifier.verify(initial, blankFirst, solver.solution()));
+            }
+        }
+
+        // on 4x4 the blank-first goal is on the other side of the parity split
+        Board solved = TestBoards.load("puzzle4x4-00.txt");
+        assertFalse(new Solver(solved, Goal.blankFirst(4)).isSolvable());
+    }
 }
@@ -0,0 +1,19 @@
+import edu.princeton.cs.algs4.In;
+
+// Reads boards out of the puzzle files, for the tests.
+final class TestBoards {
+
+    private TestBoards() {
+    }
+
+    // the board in 8puzzle-test-files/filename
+    static Board load(String filename) {
+        In in = new In("./8puzzle-test-files/" + filename);
+        int n = in.readInt();
+        int[][] blocks = new int[n][n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                blocks[i][j] = in.readInt();
+        return new Board(blocks);
+    }
+}